@@ -0,0 +1,100 @@
+package com.training.unittest.config;
+
+import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.EmployeeServiceBenchmark;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.support.EmployeeErrorMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the instrumentation on the hottest path, a cached {@code getEmployeeById}: the call without
+ * metrics, the same call through a proxy with {@link ServiceTimingAspect} recording into a Prometheus
+ * histogram (in the application the proxy already exists for {@code @Transactional}), and the
+ * per-request pieces added by {@link StatementMetricsFilter} and {@link EmployeeErrorMetrics}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private EmployeeService plainService;
+    private EmployeeService proxiedService;
+    private EmployeeService timedService;
+    private StatementCounter statementCounter;
+    private PrometheusMeterRegistry meterRegistry;
+    private EmployeeErrorMetrics errorMetrics;
+
+    @Setup
+    public void setup() {
+        meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        // what management.metrics.distribution.percentiles-histogram.* turns on
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        plainService = EmployeeServiceBenchmark.newEmployeeService(meterRegistry);
+        proxiedService = new AspectJProxyFactory(EmployeeServiceBenchmark.newEmployeeService(meterRegistry)).getProxy();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(EmployeeServiceBenchmark.newEmployeeService(meterRegistry));
+        proxyFactory.addAspect(new ServiceTimingAspect(meterRegistry));
+        timedService = proxyFactory.getProxy();
+        plainService.getEmployeeById(1L);
+        proxiedService.getEmployeeById(1L);
+        timedService.getEmployeeById(1L);
+        statementCounter = new StatementCounter();
+        errorMetrics = new EmployeeErrorMetrics(meterRegistry);
+    }
+
+    @Benchmark
+    public Optional<EmployeeView> getEmployeeByIdPlain() {
+        return plainService.getEmployeeById(1L);
+    }
+
+    /**
+     * Proxy without advice, the difference to {@link #getEmployeeByIdTimed} is the cost of the timer.
+     */
+    @Benchmark
+    public Optional<EmployeeView> getEmployeeByIdProxied() {
+        return proxiedService.getEmployeeById(1L);
+    }
+
+    @Benchmark
+    public Optional<EmployeeView> getEmployeeByIdTimed() {
+        return timedService.getEmployeeById(1L);
+    }
+
+    /**
+     * Everything {@link StatementMetricsFilter} adds to a request issuing one statement.
+     */
+    @Benchmark
+    public int statementCountPerRequest() {
+        statementCounter.start();
+        statementCounter.inspect("select 1");
+        int statements = statementCounter.stop();
+        DistributionSummary.builder(StatementMetricsFilter.NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/employee/{id}")
+                .register(meterRegistry)
+                .record(statements);
+        return statements;
+    }
+
+    @Benchmark
+    public void errorCounter() {
+        errorMetrics.notFound();
+    }
+}
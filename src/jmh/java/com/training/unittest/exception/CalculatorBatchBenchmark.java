@@ -0,0 +1,130 @@
+package com.training.unittest.exception;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch methods of {@link Calculator} against calling the single-pair {@code add} once per element, both with
+ * {@link ResultSink#NONE} so only the arithmetic is compared. {@code addIntPrinting} is the old hard-wired
+ * stdout behaviour, printing to a discarded stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorBatchBenchmark {
+
+    @Param({"1024", "65536"})
+    private int size;
+
+    private final Calculator calculator = new Calculator(ResultSink.NONE);
+    private final Calculator printing = new Calculator(ResultSink.printingTo(
+            new PrintStream(OutputStream.nullOutputStream())));
+    private int[] intA;
+    private int[] intB;
+    private int[] intDest;
+    private long[] longA;
+    private long[] longB;
+    private long[] longDest;
+    private double[] doubleA;
+    private double[] doubleB;
+    private double[] doubleDest;
+
+    @Setup
+    public void fill() {
+        SplittableRandom random = new SplittableRandom(42);
+        intA = random.ints(size, -1_000_000, 1_000_000).toArray();
+        intB = random.ints(size, -1_000_000, 1_000_000).toArray();
+        intDest = new int[size];
+        longA = random.longs(size, -1L << 40, 1L << 40).toArray();
+        longB = random.longs(size, -1L << 40, 1L << 40).toArray();
+        longDest = new long[size];
+        doubleA = random.doubles(size).toArray();
+        doubleB = random.doubles(size).toArray();
+        doubleDest = new double[size];
+    }
+
+    @Benchmark
+    public int[] addIntPrinting() {
+        for (int i = 0; i < size; i++) {
+            intDest[i] = printing.add(intA[i], intB[i]);
+        }
+        return intDest;
+    }
+
+    @Benchmark
+    public int[] addIntLoop() {
+        for (int i = 0; i < size; i++) {
+            intDest[i] = calculator.add(intA[i], intB[i]);
+        }
+        return intDest;
+    }
+
+    @Benchmark
+    public int[] addIntBatch() {
+        calculator.add(intA, intB, intDest);
+        return intDest;
+    }
+
+    @Benchmark
+    public long[] addLongExactLoop() {
+        for (int i = 0; i < size; i++) {
+            longDest[i] = Math.addExact(longA[i], longB[i]);
+        }
+        return longDest;
+    }
+
+    @Benchmark
+    public long[] addLongBatch() {
+        calculator.add(longA, longB, longDest);
+        return longDest;
+    }
+
+    @Benchmark
+    public double[] addDoubleLoop() {
+        for (int i = 0; i < size; i++) {
+            doubleDest[i] = calculator.add(doubleA[i], doubleB[i]);
+        }
+        return doubleDest;
+    }
+
+    @Benchmark
+    public double[] addDoubleBatch() {
+        calculator.add(doubleA, doubleB, doubleDest);
+        return doubleDest;
+    }
+
+    @Benchmark
+    public long sumIntLoop() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += intA[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumInt() {
+        return calculator.sum(intA);
+    }
+
+    @Benchmark
+    public long sumLongExactLoop() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum = Math.addExact(sum, longA[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumLong() {
+        return calculator.sum(longA);
+    }
+}
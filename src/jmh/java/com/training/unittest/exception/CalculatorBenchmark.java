@@ -0,0 +1,57 @@
+package com.training.unittest.exception;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The three {@link Calculator#add} overloads. They print every result, so {@code System.out} is discarded
+ * during the run; the numbers still include formatting the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorBenchmark {
+
+    // fields rather than literals, so the JIT cannot fold the arguments
+    private int intA = 45;
+    private int intB = 5;
+    private double doubleA = 4.5;
+    private double doubleB = 0.5;
+    private String stringA = "76";
+    private String stringB = "31";
+
+    private final Calculator calculator = new Calculator();
+    private PrintStream systemOut;
+
+    @Setup
+    public void discardOutput() {
+        systemOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void restoreOutput() {
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public int addInt() {
+        return calculator.add(intA, intB);
+    }
+
+    @Benchmark
+    public double addDouble() {
+        return calculator.add(doubleA, doubleB);
+    }
+
+    @Benchmark
+    public String addString() {
+        return calculator.add(stringA, stringB);
+    }
+}
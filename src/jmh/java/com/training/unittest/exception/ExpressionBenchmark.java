@@ -0,0 +1,69 @@
+package com.training.unittest.exception;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a formula evaluation with and without the parse: parsing every time, looking the compiled expression
+ * up in the engine's cache, and evaluating a held {@link Expression}. {@code evaluateAll*} compares one thread
+ * with the fork/join split for a large batch of bindings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+
+    private static final String FORMULA = "(price - discount) * quantity * (1 + tax / 100) - shipping";
+    private static final int BATCH = 1_000_000;
+
+    private final ExpressionEngine engine = new ExpressionEngine();
+    private final double[] values = {19.99, 2.5, 3, 19, 4.9};
+    private Expression expression;
+    private double[][] bindings;
+
+    @Setup
+    public void compile() {
+        expression = engine.compile(FORMULA);
+        SplittableRandom random = new SplittableRandom(42);
+        bindings = new double[BATCH][];
+        for (int i = 0; i < BATCH; i++) {
+            bindings[i] = random.doubles(5, 0, 100).toArray();
+        }
+    }
+
+    @Benchmark
+    public double parseAndEvaluate() {
+        return ExpressionParser.parse(FORMULA).evaluate(values);
+    }
+
+    @Benchmark
+    public double cachedEvaluate() {
+        return engine.evaluate(FORMULA, values);
+    }
+
+    @Benchmark
+    public double compiledEvaluate() {
+        return expression.evaluate(values);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double[] evaluateAllSequential() {
+        double[] results = new double[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            results[i] = expression.evaluate(bindings[i]);
+        }
+        return results;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double[] evaluateAll() {
+        return engine.evaluateAll(FORMULA, bindings);
+    }
+}
@@ -0,0 +1,83 @@
+package com.training.unittest.exception;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing a generated file of {@code sizeMb} megabytes, one number in int range per line: the memory-mapped
+ * {@link NumericFileAggregator} against reading lines and adding them with {@link Calculator#add(String, String)}
+ * (the way numbers are consumed from text today) or with {@link Long#parseLong}. Run with e.g.
+ * {@code -Djmh.args="NumericFileBenchmark -p sizeMb=4096"}; the file goes to {@code java.io.tmpdir}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class NumericFileBenchmark {
+
+    @Param({"1024"})
+    private int sizeMb;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        file = Files.createTempFile("numbers", ".txt");
+        long size = (long) sizeMb * 1024 * 1024;
+        SplittableRandom random = new SplittableRandom(42);
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            while (written < size) {
+                String line = Integer.toString(random.nextInt(-1_000_000, 1_000_000));
+                writer.write(line);
+                writer.write('\n');
+                written += line.length() + 1;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public NumericSummary mappedParallel() throws IOException {
+        return new NumericFileAggregator().aggregate(file);
+    }
+
+    @Benchmark
+    public String readerCalculatorAdd() throws IOException {
+        Calculator calculator = new Calculator(ResultSink.NONE);
+        String sum = "0";
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sum = calculator.add(sum, line);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long readerParseLong() throws IOException {
+        long sum = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sum = Math.addExact(sum, Long.parseLong(line));
+            }
+        }
+        return sum;
+    }
+}
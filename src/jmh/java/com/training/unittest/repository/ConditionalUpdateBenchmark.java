@@ -0,0 +1,124 @@
+package com.training.unittest.repository;
+
+import com.training.unittest.TrainingUnitTestApplication;
+import com.training.unittest.model.Employee;
+import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.ResponseDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 64 writers updating a small set of hot employees against the configured database, two ways:
+ * <ul>
+ *     <li>{@code ifMatch}: read the employee's version, then the single conditional UPDATE of an {@code If-Match}
+ *     write; an update that matches no row is a conflict the client would see as 412.</li>
+ *     <li>{@code rowLock}: {@code SELECT ... FOR UPDATE} and the update in one transaction; never conflicts, but
+ *     writers of the same employee wait for each other.</li>
+ * </ul>
+ * The score counts every attempt; JMH normalizes {@code updated} and {@code conflicts} in the secondary results per
+ * thread, so only their ratio is meaningful: {@code conflicts / (updated + conflicts)} is the conflict rate. The pool
+ * has a connection per writer so the database, not the pool, is what the writers contend on.
+ * <p>
+ * Seeds its own employees under a random email domain and deletes only those again. Point it at another
+ * database with {@code -jvmArgsAppend "-Dspring.datasource.url=..."}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(ConditionalUpdateBenchmark.WRITERS)
+@Fork(1)
+public class ConditionalUpdateBenchmark {
+
+    static final int WRITERS = 64;
+
+    @Param({"ifMatch", "rowLock"})
+    public String strategy;
+
+    @Param({"4", "64"})
+    public int hotEmployees;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepo employeeRepo;
+    private EmployeeService employeeService;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private final List<Employee> employees = new ArrayList<>();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long updated;
+        public long conflicts;
+    }
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(TrainingUnitTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.hikari.maximum-pool-size=" + WRITERS,
+                        "employee.outbox.relay-enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn")
+                .run();
+        employeeRepo = context.getBean(EmployeeRepo.class);
+        employeeService = context.getBean(EmployeeService.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        String domain = "@" + UUID.randomUUID() + ".example.com";
+        List<Employee> seed = new ArrayList<>(hotEmployees);
+        for (int i = 0; i < hotEmployees; i++) {
+            seed.add(Employee.builder().firstName("First" + i).lastName("Last" + i).email("bench" + i + domain).build());
+        }
+        for (ResponseDto result : employeeService.saveEmployees(seed)) {
+            employees.add((Employee) result.getResponse());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        employeeService.deleteEmployees(employees.stream().map(Employee::getId).toList());
+        context.close();
+    }
+
+    @Benchmark
+    public void update(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = employees.get(random.nextInt(hotEmployees)).getId();
+        String firstName = "First" + random.nextInt(1_000);
+        boolean updated = "ifMatch".equals(strategy) ? updateIfMatch(id, firstName) : updateWithRowLock(id, firstName);
+        if (updated) {
+            outcomes.updated++;
+        } else {
+            outcomes.conflicts++;
+        }
+    }
+
+    private boolean updateIfMatch(long id, String firstName) {
+        // the client's earlier GET, its own round trip
+        long version = employeeRepo.findViewById(id).map(EmployeeView::version).orElseThrow();
+        Integer matched = transactionTemplate.execute(status ->
+                employeeRepo.updateFieldsIfVersion(id, version, firstName, null, null));
+        return matched != null && matched == 1;
+    }
+
+    private boolean updateWithRowLock(long id, String firstName) {
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.find(Employee.class, id, LockModeType.PESSIMISTIC_WRITE).setFirstName(firstName));
+        return true;
+    }
+}
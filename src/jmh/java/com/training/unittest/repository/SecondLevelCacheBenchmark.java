@@ -0,0 +1,108 @@
+package com.training.unittest.repository;
+
+import com.training.unittest.TrainingUnitTestApplication;
+import com.training.unittest.config.StatementCounter;
+import com.training.unittest.model.Employee;
+import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.dto.ResponseDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-heavy mix against the configured database, with and without the second-level cache: {@code writePercent}
+ * full updates (the PUT path), the rest split evenly between {@code findById} and {@code findByEmail}, over a fixed
+ * set of employees. {@code statements / operations} in the secondary results is the number of database round trips
+ * per operation. Any write invalidates every cached query result, so {@code findByEmail} only hits the cache
+ * while there are no writes.
+ * <p>
+ * Seeds its own employees under a random email domain and deletes only those again. Point it at another
+ * database with {@code -jvmArgsAppend "-Dspring.datasource.url=..."}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final int EMPLOYEES = 1_000;
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    @Param({"10", "0"})
+    public int writePercent;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepo employeeRepo;
+    private EmployeeService employeeService;
+    private StatementCounter statementCounter;
+    private final List<Employee> employees = new ArrayList<>(EMPLOYEES);
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+        public long operations;
+    }
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(TrainingUnitTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("employee.second-level-cache.enabled=" + secondLevelCache,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn")
+                .run();
+        employeeRepo = context.getBean(EmployeeRepo.class);
+        employeeService = context.getBean(EmployeeService.class);
+        statementCounter = context.getBean(StatementCounter.class);
+        String domain = "@" + UUID.randomUUID() + ".example.com";
+        List<Employee> seed = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            seed.add(Employee.builder().firstName("First" + i).lastName("Last" + i).email("bench" + i + domain).build());
+        }
+        for (ResponseDto result : employeeService.saveEmployees(seed)) {
+            employees.add((Employee) result.getResponse());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        employeeService.deleteEmployees(employees.stream().map(Employee::getId).toList());
+        context.close();
+    }
+
+    @Benchmark
+    public Object readHeavyMix(RoundTrips roundTrips) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int operation = random.nextInt(100);
+        Employee employee = employees.get(random.nextInt(EMPLOYEES));
+        statementCounter.start();
+        try {
+            if (operation < writePercent) {
+                return employeeService.updateEmployee(Employee.builder()
+                        .id(employee.getId())
+                        .firstName("First" + operation)
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .build());
+            }
+            return (operation & 1) == 0
+                    ? employeeRepo.findById(employee.getId())
+                    : employeeRepo.findByEmail(employee.getEmail());
+        } finally {
+            roundTrips.statements += statementCounter.stop();
+            roundTrips.operations++;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.training.unittest.service;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.model.Employee;
+import com.training.unittest.repository.EmployeeChangeRepo;
+import com.training.unittest.repository.EmployeeRepo;
+import com.training.unittest.repository.EmployeeTableVersionRepo;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.impl.EmployeeServiceImpl;
+import com.training.unittest.service.support.EmailFilter;
+import com.training.unittest.service.support.EmployeeChangeBus;
+import com.training.unittest.service.support.EmployeeCache;
+import com.training.unittest.service.support.EmployeeErrorMetrics;
+import com.training.unittest.service.support.EmployeeOutbox;
+import com.training.unittest.service.support.EmployeeOutboxRelay;
+import com.training.unittest.service.support.EmployeeSearchIndex;
+import com.training.unittest.service.support.EmployeeWriteBehind;
+import com.training.unittest.service.support.StripedLocks;
+import com.training.unittest.service.support.TableVersionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Service-layer overhead (locking, email filter, cache) on top of a repository that answers instantly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    private static final int UNCACHED_IDS = 1 << 20;
+
+    private EmployeeService employeeService;
+    private Employee employee;
+    private long nextId;
+
+    @Setup
+    public void setup() {
+        employeeService = newEmployeeService(new SimpleMeterRegistry());
+        employee = Employee.builder().id(1L).firstName("Mj").lastName("Farzaneh").email("mjfarzaneh7@gmail.com").build();
+        employeeService.getEmployeeById(1L);
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @Benchmark
+    public Optional<EmployeeView> getEmployeeByIdCached() {
+        return employeeService.getEmployeeById(1L);
+    }
+
+    @Benchmark
+    public Optional<EmployeeView> getEmployeeByIdUncached() {
+        // far more distinct ids than the cache holds, nearly every call goes to the repository
+        nextId = (nextId + 1) & (UNCACHED_IDS - 1);
+        return employeeService.getEmployeeById(nextId + 2);
+    }
+
+    /**
+     * The real service wired to a stubbed repository, outside of Spring (no transaction or metrics proxies).
+     */
+    public static EmployeeService newEmployeeService(MeterRegistry meterRegistry) {
+        EmployeeRepo employeeRepo = stubRepo();
+        EmployeeProperties properties = new EmployeeProperties();
+        EmailFilter emailFilter = new EmailFilter(employeeRepo, new NoTransactionManager(), Runnable::run, properties);
+        // builds an empty filter synchronously, as after startup against an empty table
+        emailFilter.rebuild();
+        // outbox rows go to a stubbed repository, the relay is never started
+        EmployeeChangeRepo changeRepo = stub(EmployeeChangeRepo.class, (method, args) -> switch (method) {
+            case "saveAll" -> args[0];
+            default -> throw new UnsupportedOperationException(method);
+        });
+        EmployeeChangeBus bus = new EmployeeChangeBus(new StaticListableBeanFactory().getBeanProvider(EmployeeChangeSubscriber.class),
+                properties, meterRegistry);
+        EmployeeTableVersionRepo tableVersionRepo = stub(EmployeeTableVersionRepo.class, (method, args) -> switch (method) {
+            case "increment" -> 1;
+            default -> throw new UnsupportedOperationException(method);
+        });
+        TableVersionCounter tableVersion = new TableVersionCounter(tableVersionRepo, new NoTransactionManager());
+        EmployeeOutbox outbox = new EmployeeOutbox(changeRepo,
+                new EmployeeOutboxRelay(changeRepo, new NoTransactionManager(), bus, properties), tableVersion, null, properties);
+        // the search index is never built here, indexing writes return right away
+        return new EmployeeServiceImpl(employeeRepo, null, properties, emailFilter,
+                new StripedLocks(properties.getEmailLockStripes()),
+                new EmployeeCache(properties, meterRegistry), new EmployeeErrorMetrics(meterRegistry),
+                new EmployeeSearchIndex(employeeRepo, new NoTransactionManager(), Runnable::run, properties),
+                outbox, new TransactionTemplate(new NoTransactionManager()),
+                new EmployeeWriteBehind(new StaticListableBeanFactory().getBeanProvider(EmployeeService.class), properties, meterRegistry),
+                tableVersion);
+    }
+
+    private static EmployeeRepo stubRepo() {
+        return stub(EmployeeRepo.class, (method, args) -> switch (method) {
+            case "save" -> args[0];
+            case "findByEmail" -> Optional.empty();
+            case "findViewById" -> Optional.of(new EmployeeView((Long) args[0], "Mj", "Farzaneh", "mjfarzaneh7@gmail.com"));
+            case "count" -> 0L;
+            case "streamAllEmails" -> Stream.empty();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "Stub" + type.getSimpleName();
+                    default -> answer.apply(method.getName(), args);
+                }));
+    }
+
+    private static class NoTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.training.unittest.service.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.training.unittest.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the response bodies, written to a discarding stream so only serialization is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final OutputStream out = OutputStream.nullOutputStream();
+    private ObjectWriter writer;
+    private List<Employee> employees;
+    private List<EmployeeView> views;
+    private List<ResponseDto> responses;
+
+    @Setup
+    public void setup() {
+        // same defaults as the ObjectMapper Spring Boot configures for MVC
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        employees = new ArrayList<>(size);
+        views = new ArrayList<>(size);
+        responses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Employee employee = Employee.builder()
+                    .id(i + 1)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("user" + i + "@gmail.com")
+                    .build();
+            employees.add(employee);
+            views.add(EmployeeView.of(employee));
+            responses.add(i % 10 == 0
+                    ? new ResponseDto(HttpStatus.CONFLICT, "Employee already exists with given email: " + employee.getEmail(), null)
+                    : new ResponseDto(HttpStatus.CREATED, null, employee));
+        }
+    }
+
+    @Benchmark
+    public void employees() throws IOException {
+        writer.writeValue(out, employees);
+    }
+
+    @Benchmark
+    public void employeeViews() throws IOException {
+        writer.writeValue(out, views);
+    }
+
+    @Benchmark
+    public void responseDtos() throws IOException {
+        writer.writeValue(out, responses);
+    }
+}
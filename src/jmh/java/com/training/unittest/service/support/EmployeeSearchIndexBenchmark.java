@@ -0,0 +1,93 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.repository.EmployeeRepo;
+import com.training.unittest.service.dto.EmployeeView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Candidate lookup of {@link EmployeeSearchIndex} over synthetic employees: a selective last name fragment, an
+ * email domain shared by a third of the employees and a short fragment found in many first names. Run with
+ * {@code -jvmArgsAppend -Xmx...} sized for {@code employees}, the index takes some 300 bytes per employee.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeSearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Mj", "Niusha", "Sara", "Reza", "Hamid", "Kaveh", "Ali", "Mina"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "example.org"};
+
+    @Param({"1000000"})
+    public int employees;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @Setup
+    public void setup() {
+        EmployeeRepo employeeRepo = (EmployeeRepo) Proxy.newProxyInstance(EmployeeRepo.class.getClassLoader(),
+                new Class<?>[]{EmployeeRepo.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "streamAll" -> LongStream.rangeClosed(1, employees).mapToObj(EmployeeSearchIndexBenchmark::employee);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "SyntheticEmployeeRepo";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        // builds on the calling thread
+        searchIndex = new EmployeeSearchIndex(employeeRepo, new NoTransactionManager(), Runnable::run, new EmployeeProperties());
+        searchIndex.rebuild();
+    }
+
+    private static EmployeeView employee(long id) {
+        String firstName = FIRST_NAMES[(int) (id % FIRST_NAMES.length)];
+        String lastName = Long.toString(id * 2_654_435_761L % 1_000_003, 36);
+        return new EmployeeView(id, firstName, lastName, firstName.toLowerCase() + id + "@" + DOMAINS[(int) (id % DOMAINS.length)]);
+    }
+
+    @Benchmark
+    public long[] selectiveFragment() {
+        return searchIndex.candidates(Long.toString(123_456, 36), 50);
+    }
+
+    @Benchmark
+    public long[] emailDomain() {
+        return searchIndex.candidates("gmail", 50);
+    }
+
+    @Benchmark
+    public long[] commonFragment() {
+        return searchIndex.candidates("niu", 50);
+    }
+
+    @Benchmark
+    public long[] noMatch() {
+        return searchIndex.candidates("zzzq", 50);
+    }
+
+    private static class NoTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.training.unittest.config;
+
+import com.training.unittest.service.support.StripedLocks;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@EnableConfigurationProperties(EmployeeProperties.class)
+public class EmployeeConfig {
+
+    @Bean
+    public StripedLocks emailLocks(EmployeeProperties properties) {
+        return new StripedLocks(properties.getEmailLockStripes());
+    }
+
+    /**
+     * Only active with {@code spring.threads.virtual.enabled=true} on Java 21+. On platform threads the Tomcat
+     * worker pool already bounds concurrency.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(EmployeeProperties properties,
+                                                                                DataSource dataSource) throws SQLException {
+        EmployeeProperties.Concurrency config = properties.getConcurrency();
+        int maxRequests = config.getMaxRequests() > 0
+                ? config.getMaxRequests()
+                : dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxRequests, config.getAcquireTimeout()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
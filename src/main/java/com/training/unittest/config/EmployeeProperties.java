@@ -0,0 +1,230 @@
+package com.training.unittest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee")
+public class EmployeeProperties {
+
+    /**
+     * Rows written per JDBC batch and per persistence-context flush in bulk writes.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Number of locks that serialize concurrent saves of the same email.
+     */
+    private int emailLockStripes = 256;
+
+    /**
+     * Capture stack traces for expected business errors such as duplicate emails, only worth it while debugging.
+     */
+    private boolean errorStackTraces = false;
+
+    /**
+     * Longest a GET /api/employee/export may take, the other async requests keep spring.mvc.async.request-timeout.
+     */
+    private Duration exportTimeout = Duration.ofMinutes(30);
+
+    private final Filter emailFilter = new Filter();
+
+    private final Cache cache = new Cache();
+
+    private final SecondLevelCache secondLevelCache = new SecondLevelCache();
+
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    private final Outbox outbox = new Outbox();
+
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    private final Concurrency concurrency = new Concurrency();
+
+    private final Imports imports = new Imports();
+
+    @Getter
+    @Setter
+    public static class Filter {
+
+        /**
+         * Minimum number of emails the filter is sized for, it grows with the table on every rebuild.
+         */
+        private long expectedInsertions = 1_000_000;
+
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * Rebuild once this fraction of the filtered emails has been deleted.
+         */
+        private double rebuildRatio = 0.1;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        /**
+         * Maximum number of employees kept in the by-id cache, the least valuable entries are evicted first.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Entries are reloaded at the latest this long after they were cached, which bounds how stale
+         * a cached employee can be after a write on another node.
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class SecondLevelCache {
+
+        /**
+         * Cache employee entities and {@code findByEmail} results in Hibernate's second-level cache.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of employee entities kept, the least valuable entries are evicted first.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * Maximum number of cached {@code findByEmail} results.
+         */
+        private long queryMaximumSize = 10_000;
+
+        /**
+         * The cache is local to each instance: this bounds how stale an entry can be after a write on another node.
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class SearchIndex {
+
+        /**
+         * Keep the fragment search index of GET /api/employee/find in memory, some 300 bytes per employee.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Rebuild once this fraction of the indexed employees has been updated or deleted.
+         */
+        private double rebuildRatio = 0.1;
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+
+        /**
+         * Write a change row to the outbox table with every employee write, in the same transaction.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Deliver outbox rows to the change subscribers of this instance. Every instance with the relay enabled
+         * delivers every change, so enable it on one instance only unless each instance needs all changes.
+         */
+        private boolean relayEnabled = true;
+
+        /**
+         * Outbox rows read, delivered and deleted together.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Batches queued between the relay and the subscribers, rounded up to a power of two. The relay waits
+         * while the queue is full.
+         */
+        private int busCapacity = 16;
+
+        /**
+         * How often an idle relay looks for rows written by other instances; writes on this instance wake it up
+         * right after their commit.
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * Pause after a subscriber failed or the outbox could not be read, before going on.
+         */
+        private Duration retryDelay = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+
+        /**
+         * Acknowledge full updates (PUT) once they are in the local journal and write them to the database later,
+         * the latest update per employee only. Other nodes see the update after the flush.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long updates are collected before they are written in JDBC batches.
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /**
+         * Employees with a buffered update at most; an update of a further employee waits for the next flush.
+         */
+        private int maxPending = 10_000;
+
+        /**
+         * How long an update waits for room in a full buffer before it is rejected with 503.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Directory of the journal, local to the instance: buffered updates are replayed from it after a crash.
+         */
+        private Path journal = Path.of("write-behind");
+    }
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+
+        /**
+         * Requests to /api/** served at the same time when running on virtual threads.
+         * 0 uses the maximum size of the Hikari connection pool.
+         */
+        private int maxRequests = 0;
+
+        /**
+         * How long a request waits for a free slot before it is rejected with 503.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Imports {
+
+        /**
+         * Only CSV files inside this directory can be imported, rejected rows are written next to them.
+         */
+        private Path directory = Path.of("import");
+
+        /**
+         * Size of the memory-mapped file segments parsed in parallel. Each segment in flight holds its
+         * parsed rows on the heap, so this and the parallelism bound the memory an import uses.
+         */
+        private DataSize chunkSize = DataSize.ofMegabytes(1);
+
+        /**
+         * Threads parsing segments, 0 uses one per available processor.
+         */
+        private int parallelism = 0;
+    }
+}
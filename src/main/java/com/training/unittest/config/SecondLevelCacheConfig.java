@@ -0,0 +1,86 @@
+package com.training.unittest.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.training.unittest.model.Employee;
+import com.training.unittest.repository.EmployeeRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for {@code Employee} entities and {@code findByEmail} results. Every region is a
+ * bounded Caffeine cache created here, Hibernate fails on startup instead of creating an unbounded one. Hits, misses,
+ * puts and evictions are published as {@code cache.*} meters tagged with the region name.
+ * <p>
+ * Hibernate keeps the regions consistent with the writes of this instance: saves update the entity region after
+ * commit, JPQL bulk updates and deletes evict the entity region, and every write to the table invalidates the
+ * cached query results. Writes on other instances are only seen once the entry expires.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "employee.second-level-cache", name = "enabled", matchIfMissing = true)
+    public CacheManager secondLevelCacheManager(EmployeeProperties properties, MeterRegistry meterRegistry) {
+        EmployeeProperties.SecondLevelCache config = properties.getSecondLevelCache();
+        // a manager of its own per application context, regions must not collide with another context in the same JVM
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("employee-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, meterRegistry, Employee.CACHE_REGION, config.getMaximumSize(), config.getTimeToLive());
+        createRegion(cacheManager, meterRegistry, EmployeeRepo.BY_EMAIL_CACHE_REGION, config.getQueryMaximumSize(), config.getTimeToLive());
+        // queries without a region of their own, none of ours use it
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                1_000, config.getTimeToLive());
+        // one entry per table with its last write: an evicted entry would make every cached result look current
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                -1, null);
+        return cacheManager;
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String name,
+                                     long maximumSize, Duration timeToLive) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize >= 0) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (timeToLive != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        }
+        // Hibernate caches disassembled, immutable entries, copying them on every access would only cost
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+        JCacheMetrics.monitor(meterRegistry, cache);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(ObjectProvider<CacheManager> secondLevelCacheManager) {
+        CacheManager cacheManager = secondLevelCacheManager.getIfAvailable();
+        return properties -> {
+            // explicit, Hibernate would otherwise pick up the JCache region factory from the classpath on its own
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cacheManager != null);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, cacheManager != null);
+            if (cacheManager != null) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+}
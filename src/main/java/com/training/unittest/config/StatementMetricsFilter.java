@@ -0,0 +1,66 @@
+package com.training.unittest.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records the Hibernate statements each request issued on its thread as the {@code hibernate.statements.request}
+ * summary, tagged like {@code http.server.requests} with {@code method} and {@code uri} (the mapped pattern).
+ * Work finishing asynchronously on another thread, such as the NDJSON export, is not included.
+ * <p>
+ * Summaries are looked up in a map per method and pattern, so a request neither builds a meter id nor goes through
+ * the registry once its endpoint was seen.
+ */
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String NAME = "hibernate.statements.request";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    // method -> uri pattern -> summary, nested so the lookup allocates no key
+    private final ConcurrentMap<String, ConcurrentMap<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    public StatementMetricsFilter(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        statementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = statementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summary(request.getMethod(), pattern == null ? "UNKNOWN" : pattern.toString()).record(statements);
+        }
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        ConcurrentMap<String, DistributionSummary> byUri = summaries.get(method);
+        if (byUri == null) {
+            byUri = summaries.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        }
+        DistributionSummary summary = byUri.get(uri);
+        if (summary == null) {
+            summary = byUri.computeIfAbsent(uri, key -> DistributionSummary.builder(NAME)
+                    .description("Hibernate statements prepared per request")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry));
+        }
+        return summary;
+    }
+}
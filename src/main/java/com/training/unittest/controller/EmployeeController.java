@@ -1,20 +1,45 @@
 package com.training.unittest.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.exception.EmployeeNotFoundException;
 import com.training.unittest.model.Employee;
+import com.training.unittest.service.EmployeeImportService;
 import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.dto.EmployeePage;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.ImportJob;
+import com.training.unittest.service.dto.PageCursor;
+import com.training.unittest.service.dto.ResponseDto;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/employee")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AllArgsConstructor
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+    private final EmployeeImportService employeeImportService;
+    private final EmployeeProperties properties;
 
 
     @PostMapping
@@ -23,36 +48,179 @@ public class EmployeeController {
         return employeeService.saveEmployee(employee);
     }
 
-    @GetMapping
+    @PostMapping("batch")
     @ResponseStatus(HttpStatus.OK)
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public List<ResponseDto> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
     }
 
-    @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") Long id) {
-        return employeeService.getEmployeeById(id)
+    /**
+     * Starts a background import of a CSV file from the server's import directory, poll the returned location for progress.
+     */
+    @PostMapping("import")
+    public ResponseEntity<ImportJob> importEmployees(@RequestParam("file") String file) {
+        ImportJob job;
+        try {
+            job = employeeImportService.startImport(file);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/employee/import/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("import/{id}")
+    public ResponseEntity<ImportJob> getImport(@PathVariable("id") String id) {
+        return employeeImportService.getImport(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Answers {@code If-None-Match} with 304 from the table version alone, before the table is read.
+     */
+    @GetMapping
+    public ResponseEntity<List<EmployeeView>> getAllEmployees(WebRequest request) {
+        // read before the rows: a write in between changes the version again, never leaving a stale list behind it
+        if (request.checkNotModified(EmployeeETags.list(employeeService.getTableVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok(employeeService.getAllEmployees());
+    }
+
+    @GetMapping("page")
+    public ResponseEntity<EmployeePage> getEmployeePage(@RequestParam(value = "cursor", required = false) String cursor,
+                                                        @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        long afterId;
+        try {
+            afterId = cursor == null ? 0L : PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(employeeService.getEmployeesAfter(afterId, limit));
+    }
+
+    @GetMapping("search")
+    public ResponseEntity<List<EmployeeView>> searchEmployees(@RequestParam(value = "first", required = false) String first,
+                                                              @RequestParam("last") String last,
+                                                              @RequestParam(value = "prefix", defaultValue = "false") boolean prefix,
+                                                              @RequestParam(value = "page", defaultValue = "0") int page,
+                                                              @RequestParam(value = "size", defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(employeeService.searchEmployees(first, last, prefix, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Ranked fragment search over names and emails, 503 while the search index is still being built.
+     */
+    @GetMapping("find")
+    public ResponseEntity<List<EmployeeView>> findEmployees(@RequestParam("q") String query,
+                                                            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(employeeService.findEmployees(query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Full-table export as newline-delimited JSON, written while the rows are still being read. Streams on an async
+     * thread like a {@code StreamingResponseBody}, but under {@code employee.export-timeout} instead of the
+     * application-wide async timeout.
+     */
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportEmployees(HttpServletResponse response) {
+        // no flush per row: the generator and the servlet buffers decide when bytes go out
+        ObjectWriter writer = objectMapper.writerFor(EmployeeView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(properties.getExportTimeout().toMillis(), () -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+                generator.setRootValueSeparator(null);
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        writer.writeValue(generator, employee);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            return null;
+        });
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<EmployeeView> getEmployeeById(@PathVariable("id") Long id) {
+        // a matching If-None-Match gets 304 without the body being serialized
+        return employeeService.getEmployeeById(id)
+                .map(EmployeeETags::ok)
+                .orElseThrow(() -> EmployeeNotFoundException.INSTANCE);
+    }
+
+    /**
+     * With an {@code If-Match} ETag the update is one conditional UPDATE statement, answered with 412 when the
+     * employee was changed since; without one the last write wins.
+     */
     @PutMapping("{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") Long id, @RequestBody Employee employee) {
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") Long id, @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (EmployeeETags.isConditional(ifMatch)) {
+            Employee changedEmployee = Employee.builder()
+                    .id(id)
+                    .firstName(employee.getFirstName())
+                    .lastName(employee.getLastName())
+                    .email(employee.getEmail())
+                    .build();
+            long version = employeeService.updateEmployee(changedEmployee, EmployeeETags.version(ifMatch));
+            changedEmployee.setVersion(version);
+            return ResponseEntity.ok().eTag(EmployeeETags.of(version)).body(changedEmployee);
+        }
         return employeeService.getEmployeeById(id)
                 .map(foundedEmployee -> {
-                    foundedEmployee.setFirstName(employee.getFirstName());
-                    foundedEmployee.setLastName(employee.getLastName());
-                    foundedEmployee.setEmail(employee.getEmail());
+                    Employee changedEmployee = Employee.builder()
+                            .id(foundedEmployee.id())
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .build();
 
-                    Employee updatedEmployee = employeeService.updateEmployee(foundedEmployee);
+                    Employee updatedEmployee = employeeService.updateEmployee(changedEmployee);
                     return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
                 })
-                .orElseGet(() -> ResponseEntity.notFound().build());
+                .orElseThrow(() -> EmployeeNotFoundException.INSTANCE);
+    }
+
+    @PatchMapping("{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") Long id, @RequestBody Employee employee,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (EmployeeETags.isConditional(ifMatch)) {
+            long version = employeeService.patchEmployee(id, employee, EmployeeETags.version(ifMatch));
+            return ResponseEntity.noContent().eTag(EmployeeETags.of(version)).build();
+        }
+        if (!employeeService.patchEmployee(id, employee)) {
+            throw EmployeeNotFoundException.INSTANCE;
+        }
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") Long id) {
-        employeeService.deleteEmployee(id);
+        if (!employeeService.deleteEmployee(id)) {
+            throw EmployeeNotFoundException.INSTANCE;
+        }
         return new ResponseEntity<>("User with userId: " + id + " successfully deleted.", HttpStatus.OK);
     }
+
+    @DeleteMapping
+    public ResponseEntity<String> deleteEmployees(@RequestParam("ids") List<Long> ids) {
+        int deleted = employeeService.deleteEmployees(ids);
+        return new ResponseEntity<>(deleted + " users successfully deleted.", HttpStatus.OK);
+    }
 }
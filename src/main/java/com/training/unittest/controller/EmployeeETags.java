@@ -0,0 +1,65 @@
+package com.training.unittest.controller;
+
+import com.training.unittest.service.dto.EmployeeView;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * ETags of the employee reads, derived from versions the database keeps: a conditional request is answered with
+ * 304 before anything is serialized, and no response body is ever hashed. The same ETags sent back in
+ * {@code If-Match} make a write conditional on the version.
+ */
+final class EmployeeETags {
+
+    private EmployeeETags() {
+    }
+
+    /**
+     * Strong ETag from the employee's version. A buffered write-behind update has no version yet and gets none.
+     */
+    static ResponseEntity<EmployeeView> ok(EmployeeView employee) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (employee.hasVersion()) {
+            response.eTag(of(employee.version()));
+        }
+        return response.body(employee);
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * {@code *} only asks for the employee to exist, which every update checks anyway.
+     */
+    static boolean isConditional(String ifMatch) {
+        return ifMatch != null && !ifMatch.isBlank() && !"*".equals(ifMatch.trim());
+    }
+
+    /**
+     * The version of a single strong ETag. Anything else, a weak or foreign tag or a list, yields
+     * {@link EmployeeView#NO_VERSION}, which no employee has: the update fails its precondition like a stale version.
+     */
+    static long version(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.length() > 20 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return EmployeeView.NO_VERSION;
+        }
+        long version = 0;
+        for (int i = 1; i < tag.length() - 1; i++) {
+            char c = tag.charAt(i);
+            if (c < '0' || c > '9') {
+                return EmployeeView.NO_VERSION;
+            }
+            version = version * 10 + (c - '0');
+        }
+        return version;
+    }
+
+    /**
+     * Weak ETag from the table version: strong ones would keep Tomcat from compressing the list, and the list is only
+     * ever compared for {@code If-None-Match}, where weak comparison applies anyway.
+     */
+    static String list(long tableVersion) {
+        return "W/\"" + tableVersion + "\"";
+    }
+}
@@ -0,0 +1,85 @@
+package com.training.unittest.controller;
+
+import com.training.unittest.exception.DuplicateEmailException;
+import com.training.unittest.exception.EmployeeBusyException;
+import com.training.unittest.exception.EmployeeNotFoundException;
+import com.training.unittest.exception.EmployeeUpdateConflictException;
+import com.training.unittest.exception.EmployeeVersionMismatchException;
+import com.training.unittest.exception.InvalidEmployeeException;
+import com.training.unittest.service.dto.ResponseDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps expected employee errors to the {@link ResponseDto} envelope, for the servlet and the reactive controllers.
+ * Headers and the not-found, version mismatch, update conflict and busy responses are built once; a duplicate email
+ * or invalid fields only allocate their envelope and entity.
+ * Other {@code EmployeeExceptions} are unexpected and stay a 500.
+ */
+@RestControllerAdvice
+public class EmployeeExceptionHandler {
+
+    private static final HttpHeaders JSON_HEADERS;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        JSON_HEADERS = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private static final ResponseEntity<ResponseDto> NOT_FOUND = new ResponseEntity<>(
+            new ResponseDto(HttpStatus.NOT_FOUND, EmployeeNotFoundException.INSTANCE.getMessage(), null),
+            JSON_HEADERS, HttpStatus.NOT_FOUND);
+
+    private static final ResponseEntity<ResponseDto> VERSION_MISMATCH = new ResponseEntity<>(
+            new ResponseDto(HttpStatus.PRECONDITION_FAILED, EmployeeVersionMismatchException.INSTANCE.getMessage(), null),
+            JSON_HEADERS, HttpStatus.PRECONDITION_FAILED);
+
+    private static final ResponseEntity<ResponseDto> UPDATE_CONFLICT = new ResponseEntity<>(
+            new ResponseDto(HttpStatus.CONFLICT, EmployeeUpdateConflictException.INSTANCE.getMessage(), null),
+            JSON_HEADERS, HttpStatus.CONFLICT);
+
+    private static final ResponseEntity<ResponseDto> BUSY;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(JSON_HEADERS);
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        BUSY = new ResponseEntity<>(new ResponseDto(HttpStatus.SERVICE_UNAVAILABLE, EmployeeBusyException.INSTANCE.getMessage(), null),
+                HttpHeaders.readOnlyHttpHeaders(headers), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(DuplicateEmailException.class)
+    public ResponseEntity<ResponseDto> handleDuplicateEmail(DuplicateEmailException e) {
+        return new ResponseEntity<>(new ResponseDto(HttpStatus.CONFLICT, e.getMessage(), null), JSON_HEADERS, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidEmployeeException.class)
+    public ResponseEntity<ResponseDto> handleInvalid(InvalidEmployeeException e) {
+        return new ResponseEntity<>(new ResponseDto(HttpStatus.BAD_REQUEST, e.getMessage(), null), JSON_HEADERS, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(EmployeeNotFoundException.class)
+    public ResponseEntity<ResponseDto> handleNotFound() {
+        return NOT_FOUND;
+    }
+
+    @ExceptionHandler(EmployeeVersionMismatchException.class)
+    public ResponseEntity<ResponseDto> handleVersionMismatch() {
+        return VERSION_MISMATCH;
+    }
+
+    @ExceptionHandler(EmployeeUpdateConflictException.class)
+    public ResponseEntity<ResponseDto> handleUpdateConflict() {
+        return UPDATE_CONFLICT;
+    }
+
+    @ExceptionHandler(EmployeeBusyException.class)
+    public ResponseEntity<ResponseDto> handleBusy() {
+        return BUSY;
+    }
+}
@@ -0,0 +1,15 @@
+package com.training.unittest.exception;
+
+public class DuplicateEmailException extends EmployeeExceptions {
+    public DuplicateEmailException(String email) {
+        super("Employee already exists with given email: " + email);
+    }
+
+    public DuplicateEmailException(String email, Throwable cause) {
+        super("Employee already exists with given email: " + email, cause);
+    }
+
+    public DuplicateEmailException(String email, Throwable cause, boolean stackTrace) {
+        super("Employee already exists with given email: " + email, cause, stackTrace);
+    }
+}
@@ -0,0 +1,14 @@
+package com.training.unittest.exception;
+
+/**
+ * The write-behind buffer stayed full for longer than {@code employee.write-behind.acquire-timeout}. Shared and thrown
+ * without a stack trace like {@link EmployeeNotFoundException}; answered with 503 and {@code Retry-After}.
+ */
+public class EmployeeBusyException extends EmployeeExceptions {
+
+    public static final EmployeeBusyException INSTANCE = new EmployeeBusyException();
+
+    private EmployeeBusyException() {
+        super("Too many pending employee updates, retry later", null, false);
+    }
+}
@@ -8,4 +8,13 @@ public class EmployeeExceptions extends RuntimeException {
     public EmployeeExceptions(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * @param stackTrace false skips capturing the stack trace, which costs more than the rest of the exception,
+     *                   and disables suppressed exceptions, so the instance never changes after construction;
+     *                   for expected business errors the message says everything
+     */
+    protected EmployeeExceptions(String message, Throwable cause, boolean stackTrace) {
+        super(message, cause, stackTrace, stackTrace);
+    }
 }
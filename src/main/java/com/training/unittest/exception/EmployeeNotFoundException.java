@@ -0,0 +1,14 @@
+package com.training.unittest.exception;
+
+/**
+ * The requested employee does not exist. Carries nothing per request, so {@link #INSTANCE} is shared and thrown
+ * without a stack trace.
+ */
+public class EmployeeNotFoundException extends EmployeeExceptions {
+
+    public static final EmployeeNotFoundException INSTANCE = new EmployeeNotFoundException();
+
+    private EmployeeNotFoundException() {
+        super("Employee not found", null, false);
+    }
+}
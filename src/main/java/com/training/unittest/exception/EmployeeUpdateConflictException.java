@@ -0,0 +1,14 @@
+package com.training.unittest.exception;
+
+/**
+ * An update without {@code If-Match} kept losing against concurrent writes of the same employee and gave up. Shared
+ * and thrown without a stack trace like {@link EmployeeNotFoundException}; answered with 409.
+ */
+public class EmployeeUpdateConflictException extends EmployeeExceptions {
+
+    public static final EmployeeUpdateConflictException INSTANCE = new EmployeeUpdateConflictException();
+
+    private EmployeeUpdateConflictException() {
+        super("Employee is being changed concurrently, retry the update", null, false);
+    }
+}
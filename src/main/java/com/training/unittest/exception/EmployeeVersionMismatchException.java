@@ -0,0 +1,15 @@
+package com.training.unittest.exception;
+
+/**
+ * A conditional write ({@code If-Match}) named a version the employee no longer has: someone else changed it since
+ * the client read it. Shared and thrown without a stack trace like {@link EmployeeNotFoundException}; answered
+ * with 412.
+ */
+public class EmployeeVersionMismatchException extends EmployeeExceptions {
+
+    public static final EmployeeVersionMismatchException INSTANCE = new EmployeeVersionMismatchException();
+
+    private EmployeeVersionMismatchException() {
+        super("Employee was changed since the given version, read it again", null, false);
+    }
+}
@@ -0,0 +1,72 @@
+package com.training.unittest.exception;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed arithmetic expression, compiled to a tree of closures. Immutable and thread-safe, so one instance can be
+ * cached and evaluated concurrently. Arithmetic is {@code double}: division by zero gives an infinity or NaN.
+ * <p>
+ * Variables are bound by position, in the order of {@link #variables()}, which is the order of their first
+ * occurrence in the text.
+ */
+public final class Expression {
+
+    /**
+     * One compiled node, reads variables from the bound values array.
+     */
+    @FunctionalInterface
+    interface Node {
+        double evaluate(double[] values);
+    }
+
+    private final String text;
+    private final Node root;
+    private final List<String> variables;
+
+    Expression(String text, Node root, List<String> variables) {
+        this.text = text;
+        this.root = root;
+        this.variables = List.copyOf(variables);
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public List<String> variables() {
+        return variables;
+    }
+
+    /**
+     * @param values one value per variable, in the order of {@link #variables()}
+     * @throws IllegalArgumentException when the number of values does not match
+     */
+    public double evaluate(double... values) {
+        if (values.length != variables.size()) {
+            throw new IllegalArgumentException("Expected " + variables.size() + " values for " + variables
+                    + " but got " + values.length);
+        }
+        return root.evaluate(values);
+    }
+
+    /**
+     * @throws IllegalArgumentException when a variable is not bound
+     */
+    public double evaluate(Map<String, ? extends Number> bindings) {
+        double[] values = new double[variables.size()];
+        for (int i = 0; i < values.length; i++) {
+            Number value = bindings.get(variables.get(i));
+            if (value == null) {
+                throw new IllegalArgumentException("Variable " + variables.get(i) + " is not bound");
+            }
+            values[i] = value.doubleValue();
+        }
+        return root.evaluate(values);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
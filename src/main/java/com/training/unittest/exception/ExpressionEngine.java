@@ -0,0 +1,103 @@
+package com.training.unittest.exception;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Compiles expressions once and keeps them in a bounded cache keyed by their text (W-TinyLFU eviction), so
+ * formulas that are evaluated over and over skip the parser. Invalid texts are not cached.
+ */
+public class ExpressionEngine {
+
+    public static final int DEFAULT_CACHE_SIZE = 1_000;
+
+    /** Bindings evaluated by one fork/join task; smaller batches are not worth splitting. */
+    static final int SEQUENTIAL_THRESHOLD = 2_048;
+
+    private final Cache<String, Expression> cache;
+    private final ForkJoinPool pool;
+
+    public ExpressionEngine() {
+        this(DEFAULT_CACHE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public ExpressionEngine(int maximumSize, ForkJoinPool pool) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.pool = pool;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the text is not a valid expression
+     */
+    public Expression compile(String text) {
+        return cache.get(text, ExpressionParser::parse);
+    }
+
+    /**
+     * @param values one value per variable, in the order of {@link Expression#variables()}
+     */
+    public double evaluate(String text, double... values) {
+        return compile(text).evaluate(values);
+    }
+
+    /**
+     * Evaluates the expression once per row of {@code bindings}, splitting large batches across the fork/join pool.
+     *
+     * @param bindings one row of values per evaluation, each in the order of {@link Expression#variables()}
+     * @return the results, in the order of {@code bindings}
+     * @throws IllegalArgumentException when the text is not a valid expression or a row has the wrong length
+     */
+    public double[] evaluateAll(String text, double[][] bindings) {
+        Expression expression = compile(text);
+        double[] results = new double[bindings.length];
+        if (bindings.length <= SEQUENTIAL_THRESHOLD) {
+            evaluate(expression, bindings, results, 0, bindings.length);
+        } else {
+            pool.invoke(new EvaluateTask(expression, bindings, results, 0, bindings.length));
+        }
+        return results;
+    }
+
+    public long cacheSize() {
+        return cache.estimatedSize();
+    }
+
+    private static void evaluate(Expression expression, double[][] bindings, double[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = expression.evaluate(bindings[i]);
+        }
+    }
+
+    private static final class EvaluateTask extends RecursiveAction {
+
+        private final Expression expression;
+        private final double[][] bindings;
+        private final double[] results;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(Expression expression, double[][] bindings, double[] results, int from, int to) {
+            this.expression = expression;
+            this.bindings = bindings;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                evaluate(expression, bindings, results, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(expression, bindings, results, from, middle),
+                    new EvaluateTask(expression, bindings, results, middle, to));
+        }
+    }
+}
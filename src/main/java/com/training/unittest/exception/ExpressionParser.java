@@ -0,0 +1,198 @@
+package com.training.unittest.exception;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive-descent parser for {@code + - * /}, unary minus, parentheses, decimal numbers and variables
+ * ({@code [A-Za-z_][A-Za-z0-9_]*}). Each rule returns a compiled {@link Expression.Node}; subtrees without
+ * variables are folded into constants while parsing.
+ * <pre>
+ * expression = term { ("+" | "-") term }
+ * term       = unary { ("*" | "/") unary }
+ * unary      = ("-" | "+") unary | primary
+ * primary    = number | variable | "(" expression ")"
+ * </pre>
+ */
+final class ExpressionParser {
+
+    /** Bound the parser's recursion and the height of the compiled tree, so hostile input cannot overflow the stack. */
+    static final int MAX_DEPTH = 200;
+    static final int MAX_LENGTH = 4096;
+
+    private final String text;
+    private final List<String> variables = new ArrayList<>();
+    private int position;
+    private int depth;
+
+    private ExpressionParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the text is not a valid expression, the message names the position
+     */
+    static Expression parse(String text) {
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Expression longer than " + MAX_LENGTH + " characters");
+        }
+        ExpressionParser parser = new ExpressionParser(text);
+        Expression.Node root = parser.expression();
+        parser.skipWhitespace();
+        if (parser.position < text.length()) {
+            throw parser.error("unexpected '" + text.charAt(parser.position) + "'");
+        }
+        return new Expression(text, root, parser.variables);
+    }
+
+    private Expression.Node expression() {
+        Expression.Node left = term();
+        while (true) {
+            if (accept('+')) {
+                left = binary(left, term(), '+');
+            } else if (accept('-')) {
+                left = binary(left, term(), '-');
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression.Node term() {
+        Expression.Node left = unary();
+        while (true) {
+            if (accept('*')) {
+                left = binary(left, unary(), '*');
+            } else if (accept('/')) {
+                left = binary(left, unary(), '/');
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression.Node unary() {
+        if (++depth > MAX_DEPTH) {
+            throw error("nested deeper than " + MAX_DEPTH + " levels");
+        }
+        try {
+            if (accept('-')) {
+                Expression.Node operand = unary();
+                return constant(operand) ? fold(values -> -operand.evaluate(values)) : values -> -operand.evaluate(values);
+            }
+            if (accept('+')) {
+                return unary();
+            }
+            return primary();
+        } finally {
+            depth--;
+        }
+    }
+
+    private Expression.Node primary() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("unexpected end of expression");
+        }
+        char c = text.charAt(position);
+        if (accept('(')) {
+            Expression.Node inner = expression();
+            if (!accept(')')) {
+                throw error("expected ')'");
+            }
+            return inner;
+        }
+        if (isDigit(c) || c == '.') {
+            return number();
+        }
+        if (isNameStart(c)) {
+            return variable();
+        }
+        throw error("unexpected '" + c + "'");
+    }
+
+    private Expression.Node number() {
+        int start = position;
+        while (position < text.length() && (isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+            position++;
+        }
+        double value;
+        try {
+            value = Double.parseDouble(text.substring(start, position));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("invalid number");
+        }
+        return new Constant(value);
+    }
+
+    private Expression.Node variable() {
+        int start = position;
+        while (position < text.length() && (isNameStart(text.charAt(position)) || isDigit(text.charAt(position)))) {
+            position++;
+        }
+        String name = text.substring(start, position);
+        int index = variables.indexOf(name);
+        if (index < 0) {
+            index = variables.size();
+            variables.add(name);
+        }
+        int slot = index;
+        return values -> values[slot];
+    }
+
+    private static Expression.Node binary(Expression.Node left, Expression.Node right, char operator) {
+        Expression.Node node = switch (operator) {
+            case '+' -> values -> left.evaluate(values) + right.evaluate(values);
+            case '-' -> values -> left.evaluate(values) - right.evaluate(values);
+            case '*' -> values -> left.evaluate(values) * right.evaluate(values);
+            case '/' -> values -> left.evaluate(values) / right.evaluate(values);
+            default -> throw new IllegalStateException("Unknown operator " + operator);
+        };
+        return constant(left) && constant(right) ? fold(node) : node;
+    }
+
+    private static boolean constant(Expression.Node node) {
+        return node instanceof Constant;
+    }
+
+    private static Expression.Node fold(Expression.Node node) {
+        return new Constant(node.evaluate(null));
+    }
+
+    private boolean accept(char expected) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid expression '" + text + "' at position " + position + ": " + message);
+    }
+
+    // ASCII only, like the documented grammar: Character.isDigit would also take digits Double.parseDouble rejects
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNameStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private record Constant(double value) implements Expression.Node {
+
+        @Override
+        public double evaluate(double[] values) {
+            return value;
+        }
+    }
+}
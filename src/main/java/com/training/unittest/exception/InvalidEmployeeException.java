@@ -0,0 +1,11 @@
+package com.training.unittest.exception;
+
+/**
+ * Employee fields that cannot be stored, see {@code EmployeeValidator}; answered with 400.
+ */
+public class InvalidEmployeeException extends EmployeeExceptions {
+
+    public InvalidEmployeeException(String reason, boolean stackTrace) {
+        super("Employee could not be saved: " + reason, null, stackTrace);
+    }
+}
@@ -0,0 +1,263 @@
+package com.training.unittest.exception;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Sums a newline-delimited file of integers, one optionally signed {@code long} per line ({@code \n} or
+ * {@code \r\n}, blank lines are skipped), without creating a {@code String} per number.
+ * <p>
+ * The file is cut into chunks of about {@code chunkSize} bytes that end after a line break. Every chunk is
+ * memory-mapped and parsed on the fork/join pool; the partial results are merged at the end. The sum
+ * is carried in 128 bits, so it only overflows when the total itself does not fit in a {@code long}, whatever
+ * the order of the lines.
+ */
+public class NumericFileAggregator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private static final long MIN_DIV_10 = Long.MIN_VALUE / 10;
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public NumericFileAggregator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public NumericFileAggregator(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @throws NumberFormatException when a line is not an integer, the message names its byte offset
+     * @throws ArithmeticException   when a number or the sum does not fit in a {@code long}
+     */
+    public NumericSummary aggregate(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<ChunkTask> tasks = new ArrayList<>();
+            long size = channel.size();
+            long start = 0;
+            while (start < size) {
+                long end = lineEnd(channel, Math.min(start + chunkSize, size), size);
+                tasks.add(new ChunkTask(channel, start, end));
+                start = end;
+            }
+            Partial total = pool.invoke(new MergeTask(tasks));
+            return total.toSummary();
+        } catch (RuntimeException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * A task failing on another worker is rethrown as a new exception of the same type, with the original (and its
+     * message) as the cause.
+     */
+    private static IOException unwrap(RuntimeException e) {
+        RuntimeException original = e.getCause() != null && e.getCause().getClass() == e.getClass()
+                ? (RuntimeException) e.getCause()
+                : e;
+        if (original instanceof UncheckedIOException io) {
+            return io.getCause();
+        }
+        throw original;
+    }
+
+    /**
+     * First position after a line break at or after {@code position}, or the file size.
+     */
+    private static long lineEnd(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position - 1);
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static final class MergeTask extends RecursiveTask<Partial> {
+
+        private final List<ChunkTask> chunks;
+
+        MergeTask(List<ChunkTask> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        protected Partial compute() {
+            Partial total = new Partial();
+            for (ChunkTask chunk : ForkJoinTask.invokeAll(chunks)) {
+                total.merge(chunk.join());
+            }
+            return total;
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveTask<Partial> {
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Partial compute() {
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return parse(buffer, start);
+        }
+    }
+
+    /**
+     * The mapped bytes are copied to a small array block by block; a bulk copy plus plain array reads is much
+     * cheaper than reading a mapped buffer byte by byte. Totals live in locals until the end of the chunk.
+     * Numbers are accumulated as negatives, which also covers {@link Long#MIN_VALUE}.
+     */
+    static Partial parse(ByteBuffer buffer, long offset) {
+        int limit = buffer.limit();
+        byte[] block = new byte[BLOCK_SIZE];
+        long count = 0;
+        long low = 0;
+        long high = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long value = 0;
+        boolean negative = false;
+        boolean signed = false;
+        boolean carriageReturn = false;
+        int digits = 0;
+        int lineStart = 0;
+        for (int base = 0; base <= limit; base += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, limit - base);
+            buffer.get(base, block, 0, length);
+            boolean last = base + length == limit;
+            // one extra round after the last byte ends a final line without line break
+            for (int j = 0; j < length || last && j == length; j++) {
+                byte b = j < length ? block[j] : (byte) '\n';
+                if (b >= '0' && b <= '9' && !carriageReturn) {
+                    // 18 digits always fit, only longer numbers need the range check
+                    if (digits >= 18 && (value < MIN_DIV_10 || (value == MIN_DIV_10 && b > '8'))) {
+                        throw new ArithmeticException("Number at byte " + (offset + lineStart) + " does not fit in a long");
+                    }
+                    value = value * 10 - (b - '0');
+                    digits++;
+                } else if (b == '\n') {
+                    if (digits > 0) {
+                        long number = toLong(value, negative, offset + lineStart);
+                        long sum = low + number;
+                        // carry out of the unsigned low word, plus the sign extension of the number into the high word
+                        high += (number >> 63) + (Long.compareUnsigned(sum, low) < 0 ? 1 : 0);
+                        low = sum;
+                        count++;
+                        min = Math.min(min, number);
+                        max = Math.max(max, number);
+                    } else if (signed) {
+                        throw invalid(offset + lineStart);
+                    }
+                    value = 0;
+                    negative = false;
+                    signed = false;
+                    carriageReturn = false;
+                    digits = 0;
+                    lineStart = base + j + 1;
+                } else if ((b == '-' || b == '+') && base + j == lineStart) {
+                    negative = b == '-';
+                    signed = true;
+                } else if (b == '\r' && !carriageReturn) {
+                    carriageReturn = true;
+                } else {
+                    throw invalid(offset + lineStart);
+                }
+            }
+            if (last) {
+                break;
+            }
+        }
+        return new Partial(count, low, high, min, max);
+    }
+
+    private static long toLong(long negated, boolean negative, long position) {
+        if (negative) {
+            return negated;
+        }
+        if (negated == Long.MIN_VALUE) {
+            throw new ArithmeticException("Number at byte " + position + " does not fit in a long");
+        }
+        return -negated;
+    }
+
+    private static NumberFormatException invalid(long position) {
+        return new NumberFormatException("Line at byte " + position + " is not an integer");
+    }
+
+    /**
+     * Count, min, max and a 128-bit sum ({@code high}, unsigned {@code low}) of one chunk.
+     */
+    static final class Partial {
+
+        private long count;
+        private long low;
+        private long high;
+        private long min;
+        private long max;
+
+        Partial() {
+            this(0, 0, 0, Long.MAX_VALUE, Long.MIN_VALUE);
+        }
+
+        Partial(long count, long low, long high, long min, long max) {
+            this.count = count;
+            this.low = low;
+            this.high = high;
+            this.min = min;
+            this.max = max;
+        }
+
+        void merge(Partial other) {
+            long sum = low + other.low;
+            high += other.high + (Long.compareUnsigned(sum, low) < 0 ? 1 : 0);
+            low = sum;
+            count += other.count;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        NumericSummary toSummary() {
+            if (high != (low >> 63)) {
+                throw new ArithmeticException("Sum of " + count + " numbers does not fit in a long");
+            }
+            return count == 0 ? new NumericSummary(0, 0, 0, 0) : new NumericSummary(count, low, min, max);
+        }
+    }
+}
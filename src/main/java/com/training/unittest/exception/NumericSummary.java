@@ -0,0 +1,7 @@
+package com.training.unittest.exception;
+
+/**
+ * Aggregate of the numbers in a file. {@code min} and {@code max} are 0 when {@code count} is 0.
+ */
+public record NumericSummary(long count, long sum, long min, long max) {
+}
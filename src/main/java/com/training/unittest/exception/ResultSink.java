@@ -0,0 +1,77 @@
+package com.training.unittest.exception;
+
+import java.io.PrintStream;
+
+/**
+ * Receives the results {@link Calculator} reports. Primitive results reach the sink unboxed and unformatted,
+ * only a sink that prints them pays for the conversion.
+ */
+public interface ResultSink {
+
+    /**
+     * Drops every result without formatting it.
+     */
+    ResultSink NONE = new ResultSink() {
+        @Override
+        public void accept(String result) {
+        }
+
+        @Override
+        public void accept(int result) {
+        }
+
+        @Override
+        public void accept(long result) {
+        }
+
+        @Override
+        public void accept(double result) {
+        }
+    };
+
+    /**
+     * Prints to whatever {@code System.out} is at the time of the call.
+     */
+    ResultSink STDOUT = result -> System.out.println(result);
+
+    void accept(String result);
+
+    default void accept(int result) {
+        accept(String.valueOf(result));
+    }
+
+    default void accept(long result) {
+        accept(String.valueOf(result));
+    }
+
+    default void accept(double result) {
+        accept(String.valueOf(result));
+    }
+
+    /**
+     * Prints one result per line. Every line takes the stream's lock and writes through, keep it off hot paths.
+     */
+    static ResultSink printingTo(PrintStream out) {
+        return new ResultSink() {
+            @Override
+            public void accept(String result) {
+                out.println(result);
+            }
+
+            @Override
+            public void accept(int result) {
+                out.println(result);
+            }
+
+            @Override
+            public void accept(long result) {
+                out.println(result);
+            }
+
+            @Override
+            public void accept(double result) {
+                out.println(result);
+            }
+        };
+    }
+}
@@ -1,7 +1,11 @@
 package com.training.unittest.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.training.unittest.model.id.EmployeeId;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Setter
 @Getter
@@ -9,10 +13,25 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employee")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
+@Table(name = "employee", indexes = {
+        @Index(name = Employee.EMAIL_INDEX, columnList = "email", unique = true),
+        @Index(name = Employee.NAME_INDEX, columnList = "last_name, first_name")
+})
 public class Employee {
+    public static final String EMAIL_INDEX = "uk_employee_email";
+    /**
+     * Serves exact and prefix name searches, last name first since it is the more selective column.
+     */
+    public static final String NAME_INDEX = "idx_employee_name";
+    /**
+     * Second-level cache region of the entity, see {@code SecondLevelCacheConfig}.
+     */
+    public static final String CACHE_REGION = "employee";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EmployeeId(segment = "employee")
     private long id;
     @Column(name = "first_name", nullable = false)
     private String firstName;
@@ -20,5 +39,13 @@ public class Employee {
     private String lastName;
     @Column(nullable = false)
     private String email;
+    /**
+     * Incremented by every write, the ETag of the employee's responses. Not part of the JSON, clients send it
+     * in {@code If-None-Match} and {@code If-Match} only.
+     */
+    @Version
+    @JsonIgnore
+    @Column(nullable = false)
+    private long version;
 
 }
@@ -0,0 +1,55 @@
+package com.training.unittest.model;
+
+import com.training.unittest.model.id.EmployeeId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Outbox row: one change of an employee, written in the transaction of the change itself and removed once the
+ * relay has delivered it (see {@code EmployeeOutboxRelay}). Created and updated rows carry the employee's values
+ * and version after the change, deleted rows only its id.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employee_outbox")
+public class EmployeeChange {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    @Id
+    @EmployeeId(segment = "employee_outbox")
+    private long id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+    @Column(name = "employee_id", nullable = false)
+    private long employeeId;
+    @Column(name = "first_name")
+    private String firstName;
+    @Column(name = "last_name")
+    private String lastName;
+    private String email;
+    /**
+     * {@link Employee#getVersion()} after the change, {@code null} for deleted rows.
+     */
+    private Long version;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public static EmployeeChange of(Type type, Employee employee) {
+        return new EmployeeChange(0, type, employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getVersion(), Instant.now());
+    }
+
+    public static EmployeeChange deleted(long employeeId) {
+        return new EmployeeChange(0, Type.DELETED, employeeId, null, null, null, null, Instant.now());
+    }
+}
@@ -0,0 +1,23 @@
+package com.training.unittest.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One stripe of the employee table's change counter: every write transaction increments one stripe, and the sum of
+ * all stripes is the version of the table (see {@code TableVersionCounter}). Stripes keep concurrent writers from
+ * queueing on a single row lock.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "employee_table_version")
+public class EmployeeTableVersion {
+
+    @Id
+    private int stripe;
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,25 @@
+package com.training.unittest.model.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Assigns ids in memory, without a database round trip per insert, so inserts can be JDBC batched.
+ * The strategy is chosen with the Hibernate setting {@value EmployeeIdGenerator#STRATEGY}, see {@link EmployeeIdGenerator}.
+ */
+@IdGeneratorType(EmployeeIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface EmployeeId {
+
+    /**
+     * Row of the id table that holds the next free block of this entity when the pooled strategy is used.
+     */
+    String segment();
+}
@@ -0,0 +1,189 @@
+package com.training.unittest.model.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.jdbc.AbstractReturningWork;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+
+import java.lang.reflect.Member;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Id generator behind {@link EmployeeId}. Two strategies, both assign ids without a database round trip per row:
+ * <ul>
+ *     <li>{@code pooled} (default): a table-backed allocator. One update of the {@value #TABLE} table reserves a block
+ *     of {@value #BLOCK_SIZE} ids, which are then handed out from memory. Safe with any number of nodes. A segment
+ *     nothing was allocated from yet starts above the ids already in the entity's table, see {@link #seed}.</li>
+ *     <li>{@code snowflake}: {@link SnowflakeIdGenerator}, never touches the database. Every node needs its own
+ *     {@value #NODE_ID}.</li>
+ * </ul>
+ * Settings are read from the Hibernate configuration, i.e. {@code spring.jpa.properties.*}.
+ */
+public class EmployeeIdGenerator implements IdentifierGenerator {
+
+    public static final String STRATEGY = "employee.id.strategy";
+    public static final String BLOCK_SIZE = "employee.id.block-size";
+    public static final String INITIAL_VALUE = "employee.id.initial-value";
+    public static final String NODE_ID = "employee.id.node-id";
+    static final String TABLE = "id_generator";
+
+    private final TableGenerator pooled;
+    private final SnowflakeIdGenerator snowflake;
+    private final Table table;
+    private final String idColumn;
+    private final String segment;
+    private final int blockSize;
+    private final int initialValue;
+    private final boolean storeLastUsedValue;
+    private String maxIdQuery;
+    private String selectSegmentQuery;
+    private String insertSegmentQuery;
+    private String updateSegmentQuery;
+    private volatile boolean seeded;
+
+    public EmployeeIdGenerator(EmployeeId config, Member member, CustomIdGeneratorCreationContext context) {
+        ServiceRegistry serviceRegistry = context.getServiceRegistry();
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        String strategy = ConfigurationHelper.getString(STRATEGY, settings, "pooled");
+        table = context.getPersistentClass().getTable();
+        idColumn = context.getPersistentClass().getIdentifier().getColumns().get(0).getQuotedName();
+        segment = config.segment();
+        blockSize = ConfigurationHelper.getInt(BLOCK_SIZE, settings, 50);
+        initialValue = ConfigurationHelper.getInt(INITIAL_VALUE, settings, 1);
+        // how TableGenerator stores the segment, decides the values seed() reads and writes
+        storeLastUsedValue = ConfigurationHelper.getBoolean(AvailableSettings.TABLE_GENERATOR_STORE_LAST_USED, settings, true);
+        switch (strategy) {
+            case "pooled" -> {
+                Properties parameters = new Properties();
+                parameters.setProperty(TableGenerator.TABLE_PARAM, TABLE);
+                parameters.setProperty(TableGenerator.SEGMENT_VALUE_PARAM, segment);
+                parameters.setProperty(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(blockSize));
+                parameters.setProperty(OptimizableGenerator.INITIAL_PARAM, String.valueOf(initialValue));
+                parameters.setProperty(OptimizableGenerator.OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+                pooled = new TableGenerator();
+                pooled.configure(context.getDatabase().getTypeConfiguration().getBasicTypeForJavaType(Long.class),
+                        parameters, serviceRegistry);
+                snowflake = null;
+            }
+            case "snowflake" -> {
+                pooled = null;
+                snowflake = new SnowflakeIdGenerator(ConfigurationHelper.getInt(NODE_ID, settings, 0));
+            }
+            default -> throw new MappingException("Unknown " + STRATEGY + ": " + strategy);
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (pooled == null) {
+            return snowflake.nextId();
+        }
+        if (!seeded) {
+            seed(session);
+        }
+        return pooled.generate(session, object);
+    }
+
+    /**
+     * Moves a segment nothing was allocated from yet above the ids already in the entity's table, once per
+     * generator before its first id. Without it, switching an existing AUTO_INCREMENT table over would hand out
+     * ids from {@value #INITIAL_VALUE} on and collide with the existing rows. Schema tooling creates the segment
+     * row before any allocation, so both a missing row and an untouched one are seeded; a row another node
+     * already allocated from is left alone.
+     */
+    private synchronized void seed(SharedSessionContractImplementor session) {
+        if (seeded) {
+            return;
+        }
+        session.getTransactionCoordinator().createIsolationDelegate().delegateWork(new AbstractReturningWork<Void>() {
+            @Override
+            public Void execute(Connection connection) throws SQLException {
+                seed(connection);
+                return null;
+            }
+        }, true);
+        seeded = true;
+    }
+
+    private void seed(Connection connection) throws SQLException {
+        long maxId;
+        try (PreparedStatement statement = connection.prepareStatement(maxIdQuery);
+             ResultSet result = statement.executeQuery()) {
+            maxId = result.next() ? result.getLong(1) : 0;
+        }
+        if (maxId < initialValue) {
+            return;
+        }
+        // an untouched row holds the initial value, or the value before it when TableGenerator stores the last used
+        // value; from any other row value v the pooled optimizer hands out the block ending at v (at v + 1 when stored)
+        long untouched = storeLastUsedValue ? initialValue - 1 : initialValue;
+        long next = storeLastUsedValue ? maxId + blockSize - 1 : maxId + blockSize;
+        Long current = segmentValue(connection);
+        if (current == null) {
+            try (PreparedStatement insert = connection.prepareStatement(insertSegmentQuery)) {
+                insert.setString(1, segment);
+                insert.setLong(2, next);
+                insert.executeUpdate();
+                return;
+            } catch (SQLException e) {
+                // another node created the row meanwhile
+                current = segmentValue(connection);
+            }
+        }
+        if (current != null && current == untouched) {
+            try (PreparedStatement update = connection.prepareStatement(updateSegmentQuery)) {
+                update.setLong(1, next);
+                update.setString(2, segment);
+                update.setLong(3, untouched);
+                update.executeUpdate();
+            }
+        }
+    }
+
+    private Long segmentValue(Connection connection) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(selectSegmentQuery)) {
+            select.setString(1, segment);
+            try (ResultSet result = select.executeQuery()) {
+                return result.next() ? result.getLong(1) : null;
+            }
+        }
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        if (pooled != null) {
+            pooled.registerExportables(database);
+        }
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        if (pooled != null) {
+            pooled.initialize(context);
+            String idTable = pooled.getTableName();
+            String segmentColumn = pooled.getSegmentColumnName();
+            String valueColumn = pooled.getValueColumnName();
+            maxIdQuery = "select max(" + idColumn + ") from " + context.format(table.getQualifiedTableName());
+            selectSegmentQuery = "select " + valueColumn + " from " + idTable + " where " + segmentColumn + " = ?";
+            insertSegmentQuery = "insert into " + idTable + " (" + segmentColumn + ", " + valueColumn + ") values (?, ?)";
+            updateSegmentQuery = "update " + idTable + " set " + valueColumn + " = ? where " + segmentColumn + " = ? and "
+                    + valueColumn + " = ?";
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.training.unittest.repository;
+
+import com.training.unittest.model.EmployeeChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmployeeChangeRepo extends JpaRepository<EmployeeChange, Long> {
+
+    /**
+     * Next outbox rows after {@code id}, oldest first.
+     */
+    List<EmployeeChange> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    /**
+     * Change row of an update, copied from the employee row by the insert itself instead of reading the row first.
+     *
+     * @return number of inserted rows, 0 when no employee has the given id
+     */
+    @Modifying
+    @Query("insert into EmployeeChange (id, type, employeeId, firstName, lastName, email, version, createdAt) " +
+            "select :id, :type, e.id, e.firstName, e.lastName, e.email, e.version, :createdAt from Employee e where e.id = :employeeId")
+    int insertFromEmployee(@Param("id") long id, @Param("type") EmployeeChange.Type type,
+                           @Param("employeeId") long employeeId, @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query("delete from EmployeeChange c where c.id in :ids")
+    int removeAllByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,21 +1,159 @@
 package com.training.unittest.repository;
 
 import com.training.unittest.model.Employee;
+import com.training.unittest.service.dto.EmployeeView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface EmployeeRepo extends JpaRepository<Employee, Long> {
+    /**
+     * Read paths select {@link EmployeeView} projections instead of managed entities.
+     */
+    String SELECT_VIEW = "select new com.training.unittest.service.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version) " +
+            "from Employee e";
+
+    /**
+     * Second-level cache region of {@link #findByEmail} results.
+     */
+    String BY_EMAIL_CACHE_REGION = "employee-by-email";
+
+    /**
+     * Cached: the result holds the id, the entity itself comes from the {@link Employee#CACHE_REGION} region.
+     * Any write to the table invalidates all cached results.
+     */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = BY_EMAIL_CACHE_REGION)})
     Optional<Employee> findByEmail(String email);
 
+    @Query(SELECT_VIEW)
+    List<EmployeeView> findAllViews();
+
+    // runs on cache misses outside of any service transaction
+    @Transactional(readOnly = true)
+    @Query(SELECT_VIEW + " where e.id = :id")
+    Optional<EmployeeView> findViewById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_VIEW + " where e.id in :ids")
+    List<EmployeeView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Which of the ids exist, locked until the end of the transaction so a concurrent delete cannot take them
+     * in between.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Long> findExistingIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Keyset page: seeks on the primary key instead of skipping rows, so every page costs the same.
+     */
+    List<EmployeeView> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    /**
+     * Streams the whole table. A fetch size of {@link Integer#MIN_VALUE} makes MySQL Connector/J
+     * stream rows one by one instead of buffering the complete result set in the driver.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(SELECT_VIEW)
+    Stream<EmployeeView> streamAll();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("select e.email from Employee e")
+    Stream<String> streamAllEmails();
+
+    /*
+     * Name searches, all served by Employee.NAME_INDEX. Prefix variants become LIKE 'x%' with the wildcards in
+     * the argument escaped, which MySQL resolves as an index range scan. The columns use the default
+     * case-insensitive collation, so no lower() is needed (it would disable the index).
+     */
+    List<EmployeeView> findByLastName(String lastName, Pageable pageable);
+
+    List<EmployeeView> findByLastNameAndFirstName(String lastName, String firstName, Pageable pageable);
+
+    List<EmployeeView> findByLastNameStartingWith(String lastNamePrefix, Pageable pageable);
+
+    List<EmployeeView> findByLastNameAndFirstNameStartingWith(String lastName, String firstNamePrefix, Pageable pageable);
+
+    /**
+     * @deprecated fails when several employees share the name, use {@link #findByLastNameAndFirstName}
+     */
+    @Deprecated
     @Query("select e from Employee e where e.firstName=?1 and e.lastName=?2")
     Employee findByJPQL(String firstName, String lastName);
 
+    /**
+     * @deprecated fails when several employees share the name, use {@link #findByLastNameAndFirstName}
+     */
+    @Deprecated
     @Query("select e from Employee e where e.firstName=:firstName and e.lastName=:lastName")
     Employee findByJPQLNameParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
+    /**
+     * @deprecated fails when several employees share the name, use {@link #findByLastNameAndFirstName}
+     */
+    @Deprecated
     @Query(value = "select * from Employee e where e.first_name=?1 and e.last_name=?2", nativeQuery = true)
     Employee findByNativeSQL(String firstName, String lastName);
+
+    /**
+     * Single-statement partial update, {@code null} arguments keep the current column value. Increments the version
+     * itself, a bulk update bypasses Hibernate's versioning.
+     *
+     * @return number of matched rows, 0 when no employee has the given id
+     */
+    @Modifying
+    @Query("update Employee e set e.firstName = coalesce(:firstName, e.firstName), " +
+            "e.lastName = coalesce(:lastName, e.lastName), e.email = coalesce(:email, e.email), " +
+            "e.version = e.version + 1 where e.id = :id")
+    int updateFields(@Param("id") long id, @Param("firstName") String firstName,
+                     @Param("lastName") String lastName, @Param("email") String email);
+
+    /**
+     * {@link #updateFields} that only matches while the employee still has {@code version}: the optimistic check and
+     * the write are one statement, nothing is read before it.
+     *
+     * @return number of matched rows, 0 when no employee has the given id and version
+     */
+    @Modifying
+    @Query("update Employee e set e.firstName = coalesce(:firstName, e.firstName), " +
+            "e.lastName = coalesce(:lastName, e.lastName), e.email = coalesce(:email, e.email), " +
+            "e.version = e.version + 1 where e.id = :id and e.version = :version")
+    int updateFieldsIfVersion(@Param("id") long id, @Param("version") long version, @Param("firstName") String firstName,
+                              @Param("lastName") String lastName, @Param("email") String email);
+
+    /**
+     * Deletes without loading the entity first, unlike {@link #deleteById}.
+     *
+     * @return number of deleted rows, 0 when no employee has the given id
+     */
+    @Modifying
+    @Query("delete from Employee e where e.id = :id")
+    int removeById(@Param("id") long id);
+
+    @Modifying
+    @Query("delete from Employee e where e.id in :ids")
+    int removeAllByIdIn(@Param("ids") Collection<Long> ids);
 }
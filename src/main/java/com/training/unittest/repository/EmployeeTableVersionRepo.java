@@ -0,0 +1,22 @@
+package com.training.unittest.repository;
+
+import com.training.unittest.model.EmployeeTableVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface EmployeeTableVersionRepo extends JpaRepository<EmployeeTableVersion, Integer> {
+
+    /**
+     * @return number of matched rows, 0 when the stripe has no row yet
+     */
+    @Modifying
+    @Query("update EmployeeTableVersion v set v.version = v.version + 1 where v.stripe = :stripe")
+    int increment(@Param("stripe") int stripe);
+
+    @Transactional(readOnly = true)
+    @Query("select coalesce(sum(v.version), 0) from EmployeeTableVersion v")
+    long sumVersions();
+}
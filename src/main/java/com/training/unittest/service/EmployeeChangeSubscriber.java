@@ -0,0 +1,19 @@
+package com.training.unittest.service;
+
+import com.training.unittest.service.dto.EmployeeChangeEvent;
+
+import java.util.List;
+
+/**
+ * Receives employee changes from the outbox relay, as a bean of this type. Batches arrive in outbox order on a single
+ * thread; a batch is removed from the outbox once every subscriber has returned normally.
+ * <p>
+ * Delivery is at least once. When a subscriber throws, the whole batch is delivered again later, to all
+ * subscribers, and a restart repeats batches that were not confirmed yet; subscribers must therefore tolerate
+ * events they have seen before (the event id identifies them). An event that was written late can arrive after
+ * younger ones, compare {@link EmployeeChangeEvent#createdAt()} where the order per employee matters.
+ */
+public interface EmployeeChangeSubscriber {
+
+    void onChanges(List<EmployeeChangeEvent> events);
+}
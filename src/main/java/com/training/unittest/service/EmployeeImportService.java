@@ -0,0 +1,19 @@
+package com.training.unittest.service;
+
+import com.training.unittest.service.dto.ImportJob;
+
+import java.util.Optional;
+
+public interface EmployeeImportService {
+
+    /**
+     * Starts importing a CSV file ({@code firstName,lastName,email}, optional header line) from the import
+     * directory in the background. Rows that are invalid or whose email already exists, in the table or
+     * earlier in the file, are written to {@code <file>.rejected.csv}.
+     *
+     * @throws IllegalArgumentException when the file is not a regular file inside the import directory
+     */
+    ImportJob startImport(String fileName);
+
+    Optional<ImportJob> getImport(String id);
+}
@@ -1,18 +1,134 @@
 package com.training.unittest.service;
 
+import com.training.unittest.exception.EmployeeNotFoundException;
+import com.training.unittest.exception.EmployeeUpdateConflictException;
+import com.training.unittest.exception.EmployeeVersionMismatchException;
+import com.training.unittest.exception.InvalidEmployeeException;
 import com.training.unittest.model.Employee;
+import com.training.unittest.service.dto.EmployeePage;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.ResponseDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * Every write also records its changes in the outbox table, in the same transaction; they reach the
+ * {@link EmployeeChangeSubscriber}s after the commit.
+ */
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
 
-    List<Employee> getAllEmployees();
+    /**
+     * Creates many employees in one transaction. Emails are checked with a single query and rows are
+     * inserted in JDBC batches. The result holds one entry per input employee, in input order.
+     */
+    List<ResponseDto> saveEmployees(List<Employee> employees);
 
-    Optional<Employee> getEmployeeById(Long id);
+    /*
+     * Read methods return EmployeeView projections from read-only transactions,
+     * entities are only loaded where they are written.
+     */
 
+    List<EmployeeView> getAllEmployees();
+
+    /**
+     * Changes with every committed write of the employee table, on any instance; the ETag of the full list.
+     */
+    long getTableVersion();
+
+    /**
+     * Returns at most {@code limit} employees with an id greater than {@code afterId}, ordered by id.
+     * The page size is capped on the server whatever the caller asks for.
+     */
+    EmployeePage getEmployeesAfter(long afterId, int limit);
+
+    /**
+     * Hands every employee to {@code consumer} while the table is still being read.
+     * Nothing is kept in the persistence context, so memory use does not grow with the table.
+     *
+     * @return number of exported employees
+     */
+    long exportEmployees(Consumer<EmployeeView> consumer);
+
+    /**
+     * Name search ordered by last name, first name and id. {@code firstName} is optional. With {@code prefix} the
+     * last supplied name is matched as a case-insensitive prefix: the last name when no first name is given,
+     * the first name otherwise.
+     *
+     * @throws IllegalArgumentException when {@code lastName} is blank
+     */
+    List<EmployeeView> searchEmployees(String firstName, String lastName, boolean prefix, int page, int size);
+
+    /**
+     * Case-insensitive fragment search over first name, last name and email, served from the in-memory search
+     * index. Name matches rank before email matches and prefix matches before matches inside a value.
+     *
+     * @throws IllegalArgumentException when the query has fewer than 3 or more than 100 characters
+     * @throws IllegalStateException    when the search index is not built yet
+     */
+    List<EmployeeView> findEmployees(String query, int limit);
+
+    Optional<EmployeeView> getEmployeeById(Long id);
+
+    /**
+     * With {@code employee.write-behind.enabled} the update is only buffered and written later, see
+     * {@code EmployeeWriteBehind}; invalid values and taken emails are still rejected right away.
+     *
+     * @throws InvalidEmployeeException        when a field is missing or cannot be stored
+     * @throws EmployeeUpdateConflictException when concurrent writes of the employee kept winning over the retries
+     */
     Employee updateEmployee(Employee updatedEmployee);
 
-    void deleteEmployee(Long id);
+    /**
+     * Conditional full update ({@code If-Match}): one UPDATE statement that only matches while the employee still has
+     * {@code expectedVersion}, the employee is not read before it. Not buffered by the write-behind.
+     *
+     * @return the new version of the employee
+     * @throws InvalidEmployeeException         when a field is missing or cannot be stored
+     * @throws EmployeeVersionMismatchException when the employee was changed since {@code expectedVersion}
+     * @throws EmployeeNotFoundException        when there is no employee with the given id
+     */
+    long updateEmployee(Employee updatedEmployee, long expectedVersion);
+
+    /**
+     * Writes full updates of many employees in one transaction: one select for all of them, then JDBC batched
+     * updates. Employees that no longer exist are skipped.
+     *
+     * @return number of employees updated
+     */
+    int updateEmployees(Collection<EmployeeView> employees);
+
+    /**
+     * Applies the non-null fields of {@code changes} with one UPDATE statement, without loading the employee.
+     * The updated row is read back as a projection for its outbox change.
+     *
+     * @return {@code false} when there is no employee with the given id
+     * @throws InvalidEmployeeException when a supplied field cannot be stored
+     */
+    boolean patchEmployee(Long id, Employee changes);
+
+    /**
+     * {@link #patchEmployee(Long, Employee)} that only applies while the employee still has {@code expectedVersion},
+     * checked by the UPDATE statement itself.
+     *
+     * @return the new version of the employee
+     * @throws EmployeeVersionMismatchException when the employee was changed since {@code expectedVersion}
+     * @throws EmployeeNotFoundException        when there is no employee with the given id
+     */
+    long patchEmployee(Long id, Employee changes, long expectedVersion);
+
+    /**
+     * @return {@code false} when there is no employee with the given id
+     */
+    boolean deleteEmployee(Long id);
+
+    /**
+     * Deletes the given employees in one transaction, issuing one {@code IN} statement per batch of ids.
+     *
+     * @return number of employees actually deleted, unknown ids are skipped
+     */
+    int deleteEmployees(Collection<Long> ids);
 }
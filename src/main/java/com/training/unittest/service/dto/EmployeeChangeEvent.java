@@ -0,0 +1,23 @@
+package com.training.unittest.service.dto;
+
+import com.training.unittest.model.EmployeeChange;
+
+import java.time.Instant;
+
+/**
+ * A change of an employee as delivered to {@code EmployeeChangeSubscriber}s. Delivery is at least once: after a
+ * failure or a restart an event can arrive again, with the same {@code id}, possibly after newer changes of the same
+ * employee. Comparing {@code version} with the last one seen tells such a stale replay apart.
+ *
+ * @param id        outbox id, unique per change
+ * @param version   the employee's version after the change, {@code null} for deletes
+ * @param createdAt when the change was written, in the transaction of the change
+ */
+public record EmployeeChangeEvent(long id, EmployeeChange.Type type, long employeeId, String firstName,
+                                  String lastName, String email, Long version, Instant createdAt) {
+
+    public static EmployeeChangeEvent of(EmployeeChange change) {
+        return new EmployeeChangeEvent(change.getId(), change.getType(), change.getEmployeeId(), change.getFirstName(),
+                change.getLastName(), change.getEmail(), change.getVersion(), change.getCreatedAt());
+    }
+}
@@ -0,0 +1,16 @@
+package com.training.unittest.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One keyset page of employees. {@code nextCursor} is {@code null} on the last page.
+ */
+@AllArgsConstructor
+@Data
+public class EmployeePage {
+    private List<EmployeeView> content;
+    private String nextCursor;
+}
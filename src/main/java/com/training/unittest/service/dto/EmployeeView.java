@@ -0,0 +1,30 @@
+package com.training.unittest.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.training.unittest.model.Employee;
+
+/**
+ * Read-only employee row, built directly by the query's constructor expression. It never enters the
+ * persistence context, so Hibernate keeps no snapshot of it and has nothing to flush.
+ * Serializes to the same JSON as {@link Employee}, the version goes into the ETag header instead.
+ */
+public record EmployeeView(long id, String firstName, String lastName, String email, @JsonIgnore long version) {
+
+    /**
+     * Version of a view that was not read from the database, e.g. an update still in the write-behind buffer.
+     */
+    public static final long NO_VERSION = -1;
+
+    public EmployeeView(long id, String firstName, String lastName, String email) {
+        this(id, firstName, lastName, email, NO_VERSION);
+    }
+
+    public static EmployeeView of(Employee employee) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getVersion());
+    }
+
+    public boolean hasVersion() {
+        return version != NO_VERSION;
+    }
+}
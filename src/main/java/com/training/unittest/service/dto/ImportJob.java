@@ -0,0 +1,62 @@
+package com.training.unittest.service.dto;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Progress and outcome of one CSV import. Only the importing thread updates it, readers see a recent snapshot.
+ */
+@Getter
+public class ImportJob {
+
+    public enum Status {RUNNING, COMPLETED, FAILED}
+
+    private final String id;
+    private final String file;
+    private final long bytesTotal;
+    private final Instant startedAt = Instant.now();
+    private volatile Status status = Status.RUNNING;
+    private volatile long bytesRead;
+    private volatile long rowsRead;
+    private volatile long imported;
+    private volatile long rejected;
+    private volatile String errorFile;
+    private volatile String failure;
+    private volatile Instant finishedAt;
+
+    public ImportJob(String id, String file, long bytesTotal) {
+        this.id = id;
+        this.file = file;
+        this.bytesTotal = bytesTotal;
+    }
+
+    public double getRowsPerSecond() {
+        Instant end = finishedAt == null ? Instant.now() : finishedAt;
+        long millis = Math.max(Duration.between(startedAt, end).toMillis(), 1);
+        return rowsRead * 1000.0 / millis;
+    }
+
+    public void setErrorFile(String errorFile) {
+        this.errorFile = errorFile;
+    }
+
+    public void progress(long bytesRead, long rowsRead, long imported, long rejected) {
+        this.bytesRead = bytesRead;
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String failure) {
+        this.failure = failure;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
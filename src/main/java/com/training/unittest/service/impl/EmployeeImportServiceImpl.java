@@ -0,0 +1,264 @@
+package com.training.unittest.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.exception.DuplicateEmailException;
+import com.training.unittest.model.Employee;
+import com.training.unittest.service.EmployeeImportService;
+import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.dto.ImportJob;
+import com.training.unittest.service.dto.ResponseDto;
+import com.training.unittest.service.support.CsvChunkParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports CSV files in three stages: the file is memory-mapped in line-aligned segments, the segments are
+ * parsed and validated in parallel, and the rows are written in file order through
+ * {@link EmployeeService#saveEmployees}, one batch per call. That call checks emails against the table and
+ * the batch itself; rows of earlier batches are already committed, so duplicates across the whole file are
+ * caught without keeping every email of the file in memory.
+ * <p>
+ * At most twice as many segments as parser threads are in flight, memory use does not depend on the file size.
+ */
+@Slf4j
+@Service
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final EmployeeService employeeService;
+    private final EmployeeProperties properties;
+    private final TaskExecutor taskExecutor;
+    private final Cache<String, ImportJob> jobs = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    public EmployeeImportServiceImpl(EmployeeService employeeService, EmployeeProperties properties,
+                                     TaskExecutor taskExecutor) {
+        this.employeeService = employeeService;
+        this.properties = properties;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public ImportJob startImport(String fileName) {
+        Path directory = properties.getImports().getDirectory().toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No file to import in " + directory + ": " + fileName);
+        }
+        ImportJob job;
+        try {
+            job = new ImportJob(UUID.randomUUID().toString(), fileName, Files.size(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> run(job, file));
+        return job;
+    }
+
+    @Override
+    public Optional<ImportJob> getImport(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    private void run(ImportJob job, Path file) {
+        log.info("Import {} of {} ({} bytes) started", job.getId(), file, job.getBytesTotal());
+        try {
+            new Run(job, file).execute();
+            job.complete();
+            log.info("Import {} completed: {} rows, {} imported, {} rejected, {} rows/s", job.getId(),
+                    job.getRowsRead(), job.getImported(), job.getRejected(), (long) job.getRowsPerSecond());
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            log.error("Import {} of {} failed", job.getId(), file, e);
+        }
+    }
+
+    /**
+     * State of one import, only used by the thread running it.
+     */
+    private class Run {
+
+        private final ImportJob job;
+        private final Path file;
+        private final int batchSize = properties.getBatchSize();
+        private final List<CsvChunkParser.Row> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private Writer errors;
+        private long bytesRead;
+        private long lineOffset;
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private long lastLog = System.nanoTime();
+
+        Run(ImportJob job, Path file) {
+            this.job = job;
+            this.file = file;
+        }
+
+        void execute() throws IOException, InterruptedException, ExecutionException {
+            EmployeeProperties.Imports config = properties.getImports();
+            int parallelism = config.getParallelism() > 0 ? config.getParallelism() : Runtime.getRuntime().availableProcessors();
+            long chunkSize = Math.min(config.getChunkSize().toBytes(), Integer.MAX_VALUE);
+            Path errorFile = file.resolveSibling(file.getFileName() + ".rejected.csv");
+            job.setErrorFile(errorFile.toString());
+            ExecutorService parsers = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "employee-import-" + job.getId());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                 BufferedWriter errorWriter = Files.newBufferedWriter(errorFile)) {
+                errors = errorWriter;
+                errors.write("line,reason,record\n");
+                long size = channel.size();
+                long position = 0;
+                Deque<Future<CsvChunkParser.Chunk>> inFlight = new ArrayDeque<>();
+                while (position < size || !inFlight.isEmpty()) {
+                    while (position < size && inFlight.size() < parallelism * 2) {
+                        ByteBuffer chunk = map(channel, position, Math.min(chunkSize, size - position), size);
+                        boolean firstChunk = position == 0;
+                        inFlight.add(parsers.submit(() -> CsvChunkParser.parse(chunk, firstChunk)));
+                        position += chunk.limit();
+                    }
+                    consume(inFlight.poll().get());
+                }
+                writeBatch();
+                reportProgress();
+            } finally {
+                parsers.shutdownNow();
+            }
+        }
+
+        /**
+         * Maps the next segment, cut after its last line break unless it ends the file.
+         */
+        private ByteBuffer map(FileChannel channel, long position, long length, long size) throws IOException {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            if (position + length == size) {
+                return mapped;
+            }
+            int end = (int) length;
+            while (end > 0 && mapped.get(end - 1) != '\n') {
+                end--;
+            }
+            if (end == 0) {
+                throw new IllegalStateException("Line at byte " + position + " is longer than the chunk size of " + length + " bytes");
+            }
+            return mapped.slice(0, end);
+        }
+
+        private void consume(CsvChunkParser.Chunk chunk) throws IOException {
+            for (CsvChunkParser.Row row : chunk.rows()) {
+                rowsRead++;
+                long line = lineOffset + row.line();
+                if (row.rejected()) {
+                    reject(line, row.rejectReason(), row.record());
+                    continue;
+                }
+                batch.add(row);
+                batchLines.add(line);
+                if (batch.size() == batchSize) {
+                    writeBatch();
+                }
+            }
+            lineOffset += chunk.lines();
+            bytesRead += chunk.bytes();
+            reportProgress();
+        }
+
+        private void writeBatch() throws IOException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<ResponseDto> results;
+            try {
+                results = employeeService.saveEmployees(toEmployees());
+            } catch (DuplicateEmailException e) {
+                // an email of the batch was registered concurrently, the retry checks it again
+                results = employeeService.saveEmployees(toEmployees());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                ResponseDto result = results.get(i);
+                if (result.getCode() == HttpStatus.CREATED) {
+                    imported++;
+                } else {
+                    CsvChunkParser.Row row = batch.get(i);
+                    reject(batchLines.get(i), result.getErrorCode(),
+                            csv(row.firstName()) + "," + csv(row.lastName()) + "," + csv(row.email()));
+                }
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+
+        // new instances on every call, a failed batch may have left ids on the previous ones
+        private List<Employee> toEmployees() {
+            List<Employee> employees = new ArrayList<>(batch.size());
+            for (CsvChunkParser.Row row : batch) {
+                employees.add(Employee.builder()
+                        .firstName(row.firstName())
+                        .lastName(row.lastName())
+                        .email(row.email())
+                        .build());
+            }
+            return employees;
+        }
+
+        private void reject(long line, String reason, String record) throws IOException {
+            rejected++;
+            errors.write(line + "," + csv(reason) + "," + csv(record) + "\n");
+        }
+
+        private void reportProgress() {
+            job.progress(bytesRead, rowsRead, imported, rejected);
+            long now = System.nanoTime();
+            if (now - lastLog >= PROGRESS_LOG_INTERVAL_NANOS) {
+                lastLog = now;
+                log.info("Import {}: {}% read, {} rows, {} imported, {} rejected, {} rows/s", job.getId(),
+                        job.getBytesTotal() == 0 ? 100 : bytesRead * 100 / job.getBytesTotal(),
+                        rowsRead, imported, rejected, (long) job.getRowsPerSecond());
+            }
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,49 +1,541 @@
 package com.training.unittest.service.impl;
 
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.exception.DuplicateEmailException;
 import com.training.unittest.exception.EmployeeExceptions;
+import com.training.unittest.exception.EmployeeNotFoundException;
+import com.training.unittest.exception.EmployeeUpdateConflictException;
+import com.training.unittest.exception.EmployeeVersionMismatchException;
+import com.training.unittest.exception.InvalidEmployeeException;
 import com.training.unittest.model.Employee;
+import com.training.unittest.model.EmployeeChange;
 import com.training.unittest.repository.EmployeeRepo;
 import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.dto.EmployeePage;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.PageCursor;
+import com.training.unittest.service.dto.ResponseDto;
+import com.training.unittest.service.support.EmailFilter;
+import com.training.unittest.service.support.EmployeeCache;
+import com.training.unittest.service.support.EmployeeErrorMetrics;
+import com.training.unittest.service.support.EmployeeOutbox;
+import com.training.unittest.service.support.EmployeeSearchIndex;
+import com.training.unittest.service.support.EmployeeValidator;
+import com.training.unittest.service.support.EmployeeWriteBehind;
+import com.training.unittest.service.support.StripedLocks;
+import com.training.unittest.service.support.TableVersionCounter;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class EmployeeServiceImpl implements EmployeeService {
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int DEFAULT_FIND_LIMIT = 20;
+    /**
+     * Attempts of an unconditional update that lost the race against a concurrent write of the same employee.
+     */
+    private static final int UPDATE_ATTEMPTS = 3;
+    private static final Sort NAME_ORDER = Sort.by("lastName", "firstName", "id");
+
     private final EmployeeRepo employeeRepo;
+    private final EntityManager entityManager;
+    private final EmployeeProperties properties;
+    private final EmailFilter emailFilter;
+    private final StripedLocks emailLocks;
+    private final EmployeeCache employeeCache;
+    private final EmployeeErrorMetrics errorMetrics;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeWriteBehind writeBehind;
+    private final TableVersionCounter tableVersion;
 
     @Override
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> byEmail = employeeRepo.findByEmail(employee.getEmail());
-        if (byEmail.isPresent()) {
-            throw new EmployeeExceptions("Employee already exists with given email: " + employee.getEmail());
-            //return new ResponseDto(HttpStatus.FORBIDDEN, new EmployeeExceptions("Employee already exists with given email: " + employee.getEmail()).getMessage(), null);
+        // serializes saves of the same email on this node, the unique index covers the other nodes; lower-cased like
+        // the column's collation compares, so emails differing only in case share a lock
+        String email = employee.getEmail();
+        Lock lock = emailLocks.get(email == null ? null : email.toLowerCase(Locale.ROOT));
+        lock.lock();
+        try {
+            // most new emails are ruled out by the filter and skip the query
+            if (emailFilter.mightContain(employee.getEmail())) {
+                Optional<Employee> byEmail = employeeRepo.findByEmail(employee.getEmail());
+                if (byEmail.isPresent()) {
+                    throw errorMetrics.record(new DuplicateEmailException(employee.getEmail(), null, properties.isErrorStackTraces()));
+                }
+            }
+            Employee savedEmployee = insert(employee);
+            emailFilter.add(savedEmployee.getEmail());
+            employeeCache.put(savedEmployee);
+            searchIndex.add(savedEmployee.getId(), savedEmployee.getFirstName(), savedEmployee.getLastName(), savedEmployee.getEmail());
+            return savedEmployee;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the employee and its outbox row in one transaction, inside the caller's email lock.
+     */
+    private Employee insert(Employee employee) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Employee savedEmployee = employeeRepo.save(employee);
+                outbox.record(EmployeeChange.Type.CREATED, savedEmployee);
+                return savedEmployee;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw errorMetrics.record(translate(e, employee.getEmail()));
+        }
+    }
+
+    private EmployeeExceptions translate(DataIntegrityViolationException e, String email) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Employee.EMAIL_INDEX)) {
+            return new DuplicateEmailException(email, e, properties.isErrorStackTraces());
+        }
+        return new EmployeeExceptions("Employee could not be saved: " + e.getMostSpecificCause().getMessage(), e);
+    }
+
+    @Override
+    @Transactional
+    public List<ResponseDto> saveEmployees(List<Employee> employees) {
+        Set<String> emails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (employee.getEmail() != null && emailFilter.mightContain(employee.getEmail())) {
+                emails.add(employee.getEmail());
+            }
+        }
+        // keys are lower-cased like the email column's collation compares them
+        Set<String> takenEmails = new HashSet<>();
+        if (!emails.isEmpty()) {
+            for (String email : employeeRepo.findExistingEmails(emails)) {
+                takenEmails.add(email.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        int batchSize = properties.getBatchSize();
+        List<ResponseDto> results = new ArrayList<>(employees.size());
+        List<Employee> batch = new ArrayList<>(batchSize);
+        for (Employee employee : employees) {
+            String invalid = EmployeeValidator.validate(employee.getFirstName(), employee.getLastName(), employee.getEmail());
+            if (invalid != null) {
+                results.add(new ResponseDto(HttpStatus.BAD_REQUEST, invalid, null));
+            } else if (!takenEmails.add(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                results.add(new ResponseDto(HttpStatus.CONFLICT, "Employee already exists with given email: " + employee.getEmail(), null));
+            } else {
+                results.add(new ResponseDto(HttpStatus.CREATED, null, employee));
+                batch.add(employee);
+                if (batch.size() == batchSize) {
+                    insertBatch(batch);
+                }
+            }
+        }
+        insertBatch(batch);
+        return results;
+    }
+
+    private void insertBatch(List<Employee> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            employeeRepo.saveAll(batch);
+            // before the flush: the persistence context is cleared below, unflushed outbox rows would be lost
+            outbox.recordCreated(batch);
+            employeeRepo.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw errorMetrics.record(translate(e, "one of the batch emails (registered concurrently)"));
+        }
+        for (Employee employee : batch) {
+            emailFilter.add(employee.getEmail());
+            employeeCache.put(employee);
+            searchIndex.add(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        }
+        // the saved instances are already referenced by the results, keep the persistence context small
+        entityManager.clear();
+        batch.clear();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> getAllEmployees() {
+        return employeeRepo.findAllViews();
+    }
+
+    @Override
+    public long getTableVersion() {
+        return tableVersion.current();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeePage getEmployeesAfter(long afterId, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // one extra row tells us whether there is a next page without a count query
+        List<EmployeeView> rows = employeeRepo.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new EmployeePage(rows, null);
         }
-        //return new ResponseDto(HttpStatus.CREATED, null, employeeRepo.save(employee));
-        return employeeRepo.save(employee);
+        List<EmployeeView> content = rows.subList(0, pageSize);
+        return new EmployeePage(content, PageCursor.encode(content.get(pageSize - 1).id()));
     }
 
     @Override
-    public List<Employee> getAllEmployees() {
-        return employeeRepo.findAll();
+    @Transactional(readOnly = true)
+    public List<EmployeeView> searchEmployees(String firstName, String lastName, boolean prefix, int page, int size) {
+        if (lastName == null || lastName.isBlank()) {
+            throw new IllegalArgumentException("lastName is required");
+        }
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        // same order as Employee.NAME_INDEX (InnoDB appends the id), so no sort step is needed
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize, NAME_ORDER);
+        boolean hasFirstName = firstName != null && !firstName.isBlank();
+        if (!hasFirstName) {
+            return prefix
+                    ? employeeRepo.findByLastNameStartingWith(lastName, pageable)
+                    : employeeRepo.findByLastName(lastName, pageable);
+        }
+        return prefix
+                ? employeeRepo.findByLastNameAndFirstNameStartingWith(lastName, firstName, pageable)
+                : employeeRepo.findByLastNameAndFirstName(lastName, firstName, pageable);
     }
 
     @Override
-    public Optional<Employee> getEmployeeById(Long id) {
-        return employeeRepo.findById(id);
+    public List<EmployeeView> findEmployees(String query, int limit) {
+        String normalized = EmployeeSearchIndex.normalizeQuery(query);
+        int max = limit <= 0 ? DEFAULT_FIND_LIMIT : Math.min(limit, MAX_PAGE_SIZE);
+        // stale postings and false trigram matches are dropped below, spare candidates make up for them
+        long[] candidates = searchIndex.candidates(normalized, max * 2 + 10);
+        Map<Long, EmployeeView> employees = new HashMap<>(candidates.length * 2);
+        List<Long> missing = new ArrayList<>();
+        for (long id : candidates) {
+            employeeCache.getIfPresent(id).ifPresentOrElse(employee -> employees.put(id, employee), () -> missing.add(id));
+        }
+        if (!missing.isEmpty()) {
+            for (EmployeeView employee : employeeRepo.findViewsByIdIn(missing)) {
+                employees.put(employee.id(), employee);
+            }
+        }
+        List<EmployeeView> found = new ArrayList<>(max);
+        for (long id : candidates) {
+            EmployeeView employee = employees.get(id);
+            if (employee != null && EmployeeSearchIndex.matches(employee, normalized)) {
+                found.add(employee);
+                if (found.size() == max) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long exportEmployees(Consumer<EmployeeView> consumer) {
+        long count = 0;
+        try (Stream<EmployeeView> employees = employeeRepo.streamAll()) {
+            for (EmployeeView employee : (Iterable<EmployeeView>) employees::iterator) {
+                consumer.accept(employee);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Optional<EmployeeView> getEmployeeById(Long id) {
+        if (writeBehind.isEnabled()) {
+            // read-your-writes: the buffered update is newer than the database and the cache
+            Optional<EmployeeView> pending = writeBehind.pending(id);
+            if (pending.isPresent()) {
+                return pending;
+            }
+        }
+        // no transaction here, a cache hit must not take a connection
+        Optional<EmployeeView> employee = employeeCache.get(id, employeeRepo::findViewById);
+        if (employee.isEmpty()) {
+            errorMetrics.notFound();
+        }
+        return employee;
     }
 
     @Override
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepo.save(updatedEmployee);
+        validate(updatedEmployee);
+        if (writeBehind.isEnabled()) {
+            bufferUpdate(updatedEmployee);
+            return updatedEmployee;
+        }
+        Employee savedEmployee = update(updatedEmployee);
+        afterUpdate(savedEmployee.getId(), savedEmployee);
+        return savedEmployee;
+    }
+
+    /**
+     * Copies the values onto the managed employee, usually loaded from the second-level cache, so Hibernate checks
+     * and increments its version. The last writer wins: a concurrent write of the same employee makes the update
+     * start over on the newer version, up to {@link #UPDATE_ATTEMPTS} times.
+     *
+     * @throws EmployeeUpdateConflictException when every attempt lost against a concurrent write
+     */
+    private Employee update(Employee changes) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Employee employee = employeeRepo.findById(changes.getId())
+                            .orElseThrow(() -> EmployeeNotFoundException.INSTANCE);
+                    employee.setFirstName(changes.getFirstName());
+                    employee.setLastName(changes.getLastName());
+                    employee.setEmail(changes.getEmail());
+                    // Hibernate increments the version on flush, the change row must carry the new one
+                    employeeRepo.flush();
+                    outbox.record(EmployeeChange.Type.UPDATED, employee);
+                    return employee;
+                });
+            } catch (DataIntegrityViolationException e) {
+                throw errorMetrics.record(translate(e, changes.getEmail()));
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt == UPDATE_ATTEMPTS) {
+                    throw errorMetrics.record(EmployeeUpdateConflictException.INSTANCE);
+                }
+            }
+        }
     }
 
     @Override
-    public void deleteEmployee(Long id) {
-        employeeRepo.deleteById(id);
+    @Transactional
+    public long updateEmployee(Employee updatedEmployee, long expectedVersion) {
+        validate(updatedEmployee);
+        long id = updatedEmployee.getId();
+        long version = updateIfVersion(id, updatedEmployee, expectedVersion);
+        // a full update knows the whole row, no need to read it back
+        outbox.recordUpdated(new EmployeeView(id, updatedEmployee.getFirstName(), updatedEmployee.getLastName(),
+                updatedEmployee.getEmail(), version));
+        afterUpdate(id, updatedEmployee);
+        return version;
+    }
+
+    /**
+     * The check every full update runs first, whichever way it is then written.
+     */
+    private void validate(Employee employee) {
+        String invalid = EmployeeValidator.validate(employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        if (invalid != null) {
+            throw errorMetrics.record(new InvalidEmployeeException(invalid, properties.isErrorStackTraces()));
+        }
+    }
+
+    private void validateChanges(Employee changes) {
+        String invalid = EmployeeValidator.validateChanges(changes.getFirstName(), changes.getLastName(), changes.getEmail());
+        if (invalid != null) {
+            throw errorMetrics.record(new InvalidEmployeeException(invalid, properties.isErrorStackTraces()));
+        }
+    }
+
+    /**
+     * Checks the email, which the flush can no longer report to the client, then hands the already validated update
+     * to the write-behind buffer.
+     */
+    private void bufferUpdate(Employee employee) {
+        long id = employee.getId();
+        String email = employee.getEmail();
+        // the current email comes from the buffer or the cache
+        checkEmailAvailable(id, email, getEmployeeById(id).map(EmployeeView::email).orElse(null));
+        // no version until the flush writes it
+        writeBehind.submit(new EmployeeView(id, employee.getFirstName(), employee.getLastName(), email));
+        searchIndex.add(id, employee.getFirstName(), employee.getLastName(), email);
+    }
+
+    /**
+     * Rejects an email another employee already has. The common case keeps the current email and skips the query.
+     */
+    private void checkEmailAvailable(long id, String email, String currentEmail) {
+        if (email == null || email.equalsIgnoreCase(currentEmail) || !emailFilter.mightContain(email)) {
+            return;
+        }
+        Optional<Employee> byEmail = employeeRepo.findByEmail(email);
+        if (byEmail.isPresent() && byEmail.get().getId() != id) {
+            throw errorMetrics.record(new DuplicateEmailException(email, null, properties.isErrorStackTraces()));
+        }
+    }
+
+    @Override
+    @Transactional
+    public int updateEmployees(Collection<EmployeeView> employees) {
+        Map<Long, EmployeeView> updates = new HashMap<>(employees.size() * 2);
+        for (EmployeeView employee : employees) {
+            updates.put(employee.id(), employee);
+        }
+        // one select for the batch, Hibernate then writes the changed rows in JDBC batches
+        List<Employee> updated = new ArrayList<>(updates.size());
+        for (Employee employee : employeeRepo.findAllById(updates.keySet())) {
+            EmployeeView update = updates.get(employee.getId());
+            employee.setFirstName(update.firstName());
+            employee.setLastName(update.lastName());
+            employee.setEmail(update.email());
+            updated.add(employee);
+        }
+        try {
+            employeeRepo.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw errorMetrics.record(translate(e, "one of the updated emails"));
+        }
+        // after the flush, which incremented the versions the change rows carry
+        for (Employee employee : updated) {
+            outbox.record(EmployeeChange.Type.UPDATED, employee);
+        }
+        for (Employee employee : updated) {
+            emailFilter.add(employee.getEmail());
+            employeeCache.evict(employee.getId());
+            searchIndex.add(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        }
+        searchIndex.recordStale(updated.size());
+        return updated.size();
+    }
+
+    @Override
+    @Transactional
+    public boolean patchEmployee(Long id, Employee changes) {
+        validateChanges(changes);
+        // a buffered update would overwrite the patch when it is flushed, so the patch joins it instead
+        if (writeBehind.isEnabled()) {
+            Optional<EmployeeView> pending = writeBehind.pending(id);
+            // checked now like a buffered PUT: the flush could only drop the merged update
+            if (pending.isPresent()) {
+                checkEmailAvailable(id, changes.getEmail(), pending.get().email());
+            }
+            if (pending.isPresent() && writeBehind.mergeIfPending(id, changes.getFirstName(), changes.getLastName(), changes.getEmail())) {
+                searchIndex.add(id, changes.getFirstName(), changes.getLastName(), changes.getEmail());
+                return true;
+            }
+        }
+        int updated;
+        try {
+            updated = employeeRepo.updateFields(id, changes.getFirstName(), changes.getLastName(), changes.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            throw errorMetrics.record(translate(e, changes.getEmail()));
+        }
+        if (updated == 0) {
+            errorMetrics.notFound();
+            return false;
+        }
+        // the change row carries the whole employee, not just the patched fields
+        outbox.recordUpdated(id);
+        afterUpdate(id, changes);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public long patchEmployee(Long id, Employee changes, long expectedVersion) {
+        validateChanges(changes);
+        long version = updateIfVersion(id, changes, expectedVersion);
+        outbox.recordUpdated(id);
+        afterUpdate(id, changes);
+        return version;
+    }
+
+    /**
+     * Applies the non-null values with one UPDATE that also checks the version. Only a failed update reads the row,
+     * to tell a missing employee from a changed one.
+     *
+     * @return the new version
+     */
+    private long updateIfVersion(long id, Employee changes, long expectedVersion) {
+        // the buffered update is newer than any version the client can have seen, and its flush would overwrite this one
+        if (writeBehind.isEnabled() && writeBehind.pending(id).isPresent()) {
+            throw errorMetrics.record(EmployeeVersionMismatchException.INSTANCE);
+        }
+        int updated;
+        try {
+            updated = employeeRepo.updateFieldsIfVersion(id, expectedVersion, changes.getFirstName(), changes.getLastName(), changes.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            throw errorMetrics.record(translate(e, changes.getEmail()));
+        }
+        if (updated == 0) {
+            if (!employeeRepo.existsById(id)) {
+                errorMetrics.notFound();
+                throw EmployeeNotFoundException.INSTANCE;
+            }
+            throw errorMetrics.record(EmployeeVersionMismatchException.INSTANCE);
+        }
+        return expectedVersion + 1;
+    }
+
+    private void afterUpdate(long id, Employee changes) {
+        emailFilter.add(changes.getEmail());
+        employeeCache.evict(id);
+        searchIndex.add(id, changes.getFirstName(), changes.getLastName(), changes.getEmail());
+        searchIndex.recordStale(1);
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteEmployee(Long id) {
+        writeBehind.discard(id);
+        if (employeeRepo.removeById(id) == 0) {
+            errorMetrics.notFound();
+            return false;
+        }
+        outbox.recordDeleted(List.of(id));
+        emailFilter.recordRemovals(1);
+        employeeCache.evict(id);
+        searchIndex.recordStale(1);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public int deleteEmployees(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.forEach(writeBehind::discard);
+        int chunkSize = properties.getBatchSize();
+        int deleted = 0;
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+            chunk.forEach(employeeCache::evict);
+            // only employees that existed get a change row, a DELETED event is not sent for an id that never was
+            List<Long> existing = employeeRepo.findExistingIdsForUpdate(chunk);
+            if (existing.isEmpty()) {
+                continue;
+            }
+            deleted += employeeRepo.removeAllByIdIn(existing);
+            outbox.recordDeleted(existing);
+        }
+        if (deleted > 0) {
+            emailFilter.recordRemovals(deleted);
+            searchIndex.recordStale(deleted);
+        }
+        return deleted;
     }
 }
@@ -0,0 +1,153 @@
+package com.training.unittest.service.support;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses a chunk of an employee CSV file ({@code firstName,lastName,email}, UTF-8) that starts at a line
+ * start and ends after a line break or at the end of the file. Chunks are independent of each other, so
+ * they can be parsed in parallel.
+ * <p>
+ * Fields may be quoted with {@code "}, a quote inside a quoted field is written as {@code ""}. Line breaks
+ * inside quoted fields are not supported, every line is one record.
+ */
+public final class CsvChunkParser {
+
+    private static final String HEADER = "firstname,lastname,email";
+
+    private CsvChunkParser() {
+    }
+
+    /**
+     * One line of the file. Valid rows carry the trimmed fields, rejected rows the raw line and the reason.
+     *
+     * @param line 1-based line number within the chunk
+     */
+    public record Row(int line, String firstName, String lastName, String email, String record, String rejectReason) {
+
+        public boolean rejected() {
+            return rejectReason != null;
+        }
+    }
+
+    /**
+     * @param lines number of lines in the chunk, including blank and header lines
+     * @param bytes length of the chunk
+     */
+    public record Chunk(List<Row> rows, int lines, int bytes) {
+    }
+
+    /**
+     * @param firstChunk whether the chunk starts the file, only then the first line may be a header
+     */
+    public static Chunk parse(ByteBuffer buffer, boolean firstChunk) {
+        int limit = buffer.limit();
+        List<Row> rows = new ArrayList<>();
+        byte[] line = new byte[256];
+        List<String> fields = new ArrayList<>(3);
+        int lines = 0;
+        int start = 0;
+        while (start < limit) {
+            int end = start;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            int next = end + 1;
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            lines++;
+            int length = end - start;
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            buffer.get(start, line, 0, length);
+            start = next;
+            if (isBlank(line, length)) {
+                continue;
+            }
+            String reason = split(line, length, fields);
+            if (reason == null && fields.size() != 3) {
+                reason = "expected 3 fields (firstName,lastName,email) but found " + fields.size();
+            }
+            if (reason == null && firstChunk && lines == 1 && HEADER.equals(String.join(",", fields).toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            if (reason == null) {
+                reason = EmployeeValidator.validate(fields.get(0), fields.get(1), fields.get(2));
+            }
+            rows.add(reason == null
+                    ? new Row(lines, fields.get(0), fields.get(1), fields.get(2), null, null)
+                    : new Row(lines, null, null, null, new String(line, 0, length, StandardCharsets.UTF_8), reason));
+        }
+        return new Chunk(rows, lines, limit);
+    }
+
+    /**
+     * Splits one line into trimmed fields, empty fields become {@code null}.
+     *
+     * @return why the line cannot be split, {@code null} on success
+     */
+    private static String split(byte[] line, int length, List<String> fields) {
+        fields.clear();
+        int i = 0;
+        while (true) {
+            while (i < length && line[i] == ' ') {
+                i++;
+            }
+            if (i < length && line[i] == '"') {
+                ByteArrayOutputStream value = new ByteArrayOutputStream();
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        return "unterminated quoted field";
+                    }
+                    if (line[i] == '"') {
+                        if (i + 1 < length && line[i + 1] == '"') {
+                            value.write('"');
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    value.write(line[i++]);
+                }
+                while (i < length && line[i] == ' ') {
+                    i++;
+                }
+                if (i < length && line[i] != ',') {
+                    return "unexpected character after quoted field";
+                }
+                fields.add(emptyToNull(value.toString(StandardCharsets.UTF_8).strip()));
+            } else {
+                int from = i;
+                while (i < length && line[i] != ',') {
+                    i++;
+                }
+                fields.add(emptyToNull(new String(line, from, i - from, StandardCharsets.UTF_8).strip()));
+            }
+            if (i >= length) {
+                return null;
+            }
+            i++; // the comma
+        }
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] != ' ' && line[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
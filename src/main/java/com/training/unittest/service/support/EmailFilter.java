@@ -0,0 +1,121 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.repository.EmployeeRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory membership filter over all employee emails. When it says an email is absent, the email is
+ * certainly not in the table and the duplicate pre-check query can be skipped.
+ * <p>
+ * The filter is built in the background at startup and answers "maybe" for every email until then.
+ * Deleted emails cannot be taken out of a Bloom filter, they only cost an extra query, so the filter is
+ * rebuilt once enough rows were deleted or more rows were added than it was sized for.
+ */
+@Slf4j
+@Component
+public class EmailFilter {
+
+    private final EmployeeRepo employeeRepo;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor taskExecutor;
+    private final EmployeeProperties.Filter config;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong additions = new AtomicLong();
+    private final AtomicLong removals = new AtomicLong();
+    private volatile BloomFilter active;
+    private volatile BloomFilter building;
+    private volatile long builtCount;
+
+    public EmailFilter(EmployeeRepo employeeRepo, PlatformTransactionManager transactionManager,
+                       TaskExecutor taskExecutor, EmployeeProperties properties) {
+        this.employeeRepo = employeeRepo;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.config = properties.getEmailFilter();
+    }
+
+    public boolean mightContain(String email) {
+        BloomFilter filter = active;
+        return filter == null || email == null || filter.mightContain(normalize(email));
+    }
+
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = normalize(email);
+        // building first: a rebuild publishes the new filter as active before it clears building, so the email
+        // reaches the new filter whichever way the swap interleaves with this add
+        BloomFilter next = building;
+        BloomFilter filter = active;
+        if (next != null) {
+            next.put(key);
+        }
+        if (filter != null && filter != next) {
+            filter.put(key);
+        }
+        if (filter != null && builtCount + additions.incrementAndGet() > filter.capacity()) {
+            rebuild();
+        }
+    }
+
+    public void recordRemovals(long count) {
+        if (removals.addAndGet(count) > (builtCount + additions.get()) * config.getRebuildRatio()) {
+            rebuild();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            taskExecutor.execute(this::rebuildNow);
+        }
+    }
+
+    private void rebuildNow() {
+        try {
+            long rows = employeeRepo.count();
+            BloomFilter next = new BloomFilter(Math.max(config.getExpectedInsertions(), rows * 2), config.getFalsePositiveRate());
+            // emails saved from now on go into both filters, the scan below picks up everything committed before
+            building = next;
+            additions.set(0);
+            removals.set(0);
+            AtomicLong scanned = new AtomicLong();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = employeeRepo.streamAllEmails()) {
+                    emails.forEach(email -> {
+                        next.put(normalize(email));
+                        scanned.incrementAndGet();
+                    });
+                }
+            });
+            builtCount = scanned.get();
+            active = next;
+            log.info("Email filter built from {} employees", builtCount);
+        } catch (RuntimeException e) {
+            log.warn("Building the email filter failed, every email is checked against the database until the next rebuild", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    /** Matches the case-insensitive collation of the email column. */
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
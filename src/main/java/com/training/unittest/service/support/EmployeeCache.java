@@ -0,0 +1,76 @@
+package com.training.unittest.service.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.model.Employee;
+import com.training.unittest.service.dto.EmployeeView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded by-id cache of immutable {@link EmployeeView}s in front of the employee table
+ * (W-TinyLFU eviction, time-to-live per entry).
+ * Misses for the same id are loaded once, concurrent readers wait for that load. Absent employees are not
+ * cached, ids are handed out in order and clients probing the next one must not get a stale 404.
+ * Every write must go through {@link #put} or {@link #evict} after it reached the database. Inside a transaction
+ * both are deferred until it commits, otherwise a reader could cache the old row between the write and the commit.
+ * <p>
+ * Hits, misses, evictions and load latency are published as {@code cache.*} meters tagged {@code cache=employees}.
+ */
+@Component
+public class EmployeeCache {
+
+    public static final String NAME = "employees";
+
+    private final Cache<Long, EmployeeView> cache;
+
+    public EmployeeCache(EmployeeProperties properties, MeterRegistry meterRegistry) {
+        EmployeeProperties.Cache config = properties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    public Optional<EmployeeView> get(Long id, Function<Long, Optional<EmployeeView>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Looks the id up without loading it on a miss.
+     */
+    public Optional<EmployeeView> getIfPresent(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    public void put(Employee employee) {
+        EmployeeView view = EmployeeView.of(employee);
+        afterCommit(() -> cache.put(view.id(), view));
+    }
+
+    public void evict(Long id) {
+        afterCommit(() -> cache.invalidate(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,190 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.service.EmployeeChangeSubscriber;
+import com.training.unittest.service.dto.EmployeeChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded in-process queue of change batches between {@link EmployeeOutboxRelay} and the
+ * {@link EmployeeChangeSubscriber} beans. A ring buffer with one publisher (the relay thread) and one consumer (the
+ * dispatcher thread), coordinated by two ordered counters only: publishing and delivering take no lock. A full
+ * ring makes the publisher wait, an empty one parks the dispatcher until the next batch.
+ * <p>
+ * A batch is confirmed (its callback runs) once every subscriber has handled it. When a subscriber throws, the
+ * dispatcher waits for {@code employee.outbox.retry-delay} and hands the same batch to all subscribers again, until it
+ * goes through or the bus stops; later batches wait behind it, so no subscriber sees a change before an older one.
+ * A batch dropped by a stop stays in the outbox, the relay delivers it again after the next start. Delivered events
+ * and failed attempts are counted as {@code employee.outbox.delivered} and {@code employee.outbox.failures}.
+ */
+@Slf4j
+@Component
+public class EmployeeChangeBus implements SmartLifecycle {
+
+    /**
+     * Started before and stopped after the relay, which publishes into the bus.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final ObjectProvider<EmployeeChangeSubscriber> subscriberBeans;
+    // dispatcher thread only, looked up on first use: subscribers may depend on the service that writes the outbox
+    private List<EmployeeChangeSubscriber> subscribers;
+    private final Batch[] ring;
+    private final int mask;
+    // next slot to publish into, written by the publisher only
+    private final AtomicLong tail = new AtomicLong();
+    // next slot to deliver, written by the dispatcher only and advanced once the batch is handled
+    private final AtomicLong head = new AtomicLong();
+    private final boolean autoStartup;
+    private final long retryDelayNanos;
+    private final Counter delivered;
+    private final Counter failures;
+    private volatile boolean running;
+    private volatile Thread dispatcher;
+
+    public EmployeeChangeBus(ObjectProvider<EmployeeChangeSubscriber> subscriberBeans, EmployeeProperties properties,
+                             MeterRegistry meterRegistry) {
+        EmployeeProperties.Outbox config = properties.getOutbox();
+        this.subscriberBeans = subscriberBeans;
+        int capacity = Integer.highestOneBit(Math.max(config.getBusCapacity(), 2) * 2 - 1);
+        this.ring = new Batch[capacity];
+        this.mask = capacity - 1;
+        this.autoStartup = config.isEnabled() && config.isRelayEnabled();
+        this.retryDelayNanos = config.getRetryDelay().toNanos();
+        this.delivered = Counter.builder("employee.outbox.delivered")
+                .description("Employee change events delivered to all subscribers")
+                .register(meterRegistry);
+        this.failures = Counter.builder("employee.outbox.failures")
+                .description("Attempts to deliver an employee change batch a subscriber failed on")
+                .register(meterRegistry);
+    }
+
+    private record Batch(List<EmployeeChangeEvent> events, Runnable onDelivered) {
+    }
+
+    /**
+     * Queues a batch, waiting while the ring is full. Only one thread may publish.
+     *
+     * @param onDelivered runs on the dispatcher thread once all subscribers handled the batch
+     * @return {@code false} when the bus stopped before the batch could be queued
+     */
+    public boolean publish(List<EmployeeChangeEvent> events, Runnable onDelivered) {
+        long slot = tail.get();
+        while (slot - head.get() == ring.length) {
+            if (!running) {
+                return false;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        ring[(int) slot & mask] = new Batch(events, onDelivered);
+        // ordered store: the dispatcher sees the slot filled once it sees the new tail
+        tail.lazySet(slot + 1);
+        Thread thread = dispatcher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Whether every published batch has been delivered.
+     */
+    public boolean isIdle() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * Hands the oldest queued batch to the subscribers. A failed batch stays the oldest, the next call retries it.
+     *
+     * @return {@code false} when there was none
+     */
+    boolean dispatchOnce() {
+        long slot = head.get();
+        if (slot == tail.get()) {
+            return false;
+        }
+        int index = (int) slot & mask;
+        Batch batch = ring[index];
+        if (subscribers == null) {
+            subscribers = subscriberBeans.orderedStream().toList();
+        }
+        try {
+            for (EmployeeChangeSubscriber subscriber : subscribers) {
+                subscriber.onChanges(batch.events());
+            }
+            delivered.increment(batch.events().size());
+            batch.onDelivered().run();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Delivering {} employee changes failed, retrying them before any later change",
+                    batch.events().size(), e);
+            LockSupport.parkNanos(retryDelayNanos);
+            return true;
+        }
+        ring[index] = null;
+        head.lazySet(slot + 1);
+        return true;
+    }
+
+    private void dispatch() {
+        while (running) {
+            if (!dispatchOnce()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return autoStartup;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::dispatch, "employee-change-dispatcher");
+        thread.setDaemon(true);
+        dispatcher = thread;
+        thread.start();
+    }
+
+    /**
+     * Batches still queued are dropped unconfirmed, the relay delivers them again after the next start.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = dispatcher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            dispatcher = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
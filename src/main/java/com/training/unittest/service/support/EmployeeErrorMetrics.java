@@ -0,0 +1,60 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.exception.DuplicateEmailException;
+import com.training.unittest.exception.EmployeeExceptions;
+import com.training.unittest.exception.EmployeeUpdateConflictException;
+import com.training.unittest.exception.EmployeeVersionMismatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts failed employee operations as {@code employee.errors}, tagged by {@code cause}.
+ * The counters are registered once up front, so recording is a single increment.
+ */
+@Component
+public class EmployeeErrorMetrics {
+
+    public static final String NAME = "employee.errors";
+
+    private final Counter duplicateEmail;
+    private final Counter notFound;
+    private final Counter versionMismatch;
+    private final Counter updateConflict;
+    private final Counter other;
+
+    public EmployeeErrorMetrics(MeterRegistry meterRegistry) {
+        this.duplicateEmail = counter(meterRegistry, "duplicate_email");
+        this.notFound = counter(meterRegistry, "not_found");
+        this.versionMismatch = counter(meterRegistry, "version_mismatch");
+        this.updateConflict = counter(meterRegistry, "update_conflict");
+        this.other = counter(meterRegistry, "other");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder(NAME)
+                .description("Failed employee operations")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts the exception by its cause and returns it, for {@code throw errorMetrics.record(...)}.
+     */
+    public <E extends EmployeeExceptions> E record(E exception) {
+        if (exception instanceof DuplicateEmailException) {
+            duplicateEmail.increment();
+        } else if (exception instanceof EmployeeVersionMismatchException) {
+            versionMismatch.increment();
+        } else if (exception instanceof EmployeeUpdateConflictException) {
+            updateConflict.increment();
+        } else {
+            other.increment();
+        }
+        return exception;
+    }
+
+    public void notFound() {
+        notFound.increment();
+    }
+}
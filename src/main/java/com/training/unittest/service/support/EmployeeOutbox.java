@@ -0,0 +1,118 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.model.Employee;
+import com.training.unittest.model.EmployeeChange;
+import com.training.unittest.repository.EmployeeChangeRepo;
+import com.training.unittest.service.dto.EmployeeView;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes employee changes to the outbox table. Must run in the transaction of the change, so the change row
+ * commits or rolls back together with the employee row; {@link EmployeeOutboxRelay} delivers it after the commit.
+ * Every write of the employee table reports here, so this also advances the {@link TableVersionCounter}, outbox
+ * enabled or not.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class EmployeeOutbox {
+
+    private final EmployeeChangeRepo changeRepo;
+    private final EmployeeOutboxRelay relay;
+    private final TableVersionCounter tableVersion;
+    private final EntityManager entityManager;
+    private final boolean enabled;
+
+    public EmployeeOutbox(EmployeeChangeRepo changeRepo, EmployeeOutboxRelay relay, TableVersionCounter tableVersion,
+                          EntityManager entityManager, EmployeeProperties properties) {
+        this.changeRepo = changeRepo;
+        this.relay = relay;
+        this.tableVersion = tableVersion;
+        this.entityManager = entityManager;
+        this.enabled = properties.getOutbox().isEnabled();
+    }
+
+    public void record(EmployeeChange.Type type, Employee employee) {
+        write(List.of(EmployeeChange.of(type, employee)));
+    }
+
+    public void recordCreated(Collection<Employee> employees) {
+        List<EmployeeChange> changes = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            changes.add(EmployeeChange.of(EmployeeChange.Type.CREATED, employee));
+        }
+        write(changes);
+    }
+
+    public void recordUpdated(EmployeeView employee) {
+        write(List.of(new EmployeeChange(0, EmployeeChange.Type.UPDATED, employee.id(), employee.firstName(),
+                employee.lastName(), employee.email(), employee.version(), Instant.now())));
+    }
+
+    /**
+     * Update whose values the caller does not have, e.g. a partial one: the change row is copied from the employee
+     * row with one {@code INSERT ... SELECT}, the employee is not read.
+     */
+    public void recordUpdated(long employeeId) {
+        tableVersion.increment();
+        if (!enabled) {
+            return;
+        }
+        changeRepo.insertFromEmployee(nextId(), EmployeeChange.Type.UPDATED, employeeId, Instant.now());
+        wakeUpRelayAfterCommit();
+    }
+
+    public void recordDeleted(Collection<Long> employeeIds) {
+        List<EmployeeChange> changes = new ArrayList<>(employeeIds.size());
+        for (long employeeId : employeeIds) {
+            changes.add(EmployeeChange.deleted(employeeId));
+        }
+        write(changes);
+    }
+
+    private void write(List<EmployeeChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        tableVersion.increment();
+        if (!enabled) {
+            return;
+        }
+        // ids are assigned here, the rows are inserted with the next flush and JDBC batched like the employees
+        changeRepo.saveAll(changes);
+        wakeUpRelayAfterCommit();
+    }
+
+    private void wakeUpRelayAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wakeUp();
+                }
+            });
+        }
+    }
+
+    /**
+     * Id from {@link EmployeeChange}'s own generator, which a bulk insert does not run.
+     */
+    private long nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(EmployeeChange.class).getGenerator();
+        return (Long) generator.generate(session, null);
+    }
+}
@@ -0,0 +1,173 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.model.EmployeeChange;
+import com.training.unittest.repository.EmployeeChangeRepo;
+import com.training.unittest.service.dto.EmployeeChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains the outbox table onto the {@link EmployeeChangeBus}: reads the rows in id order, a batch at a time, and
+ * deletes each batch once the bus confirms it. Several batches can be in flight, the relay reads ahead while the
+ * subscribers work.
+ * <p>
+ * Ids are reserved in blocks, so a row can commit after rows with higher ids were already relayed. Whenever the relay
+ * has caught up it therefore waits until the bus is idle and starts over from the lowest id left in the table: rows
+ * that committed late are picked up then. While idle it sleeps for
+ * {@code employee.outbox.poll-interval} or until a write on this instance commits.
+ */
+@Slf4j
+@Component
+public class EmployeeOutboxRelay implements SmartLifecycle {
+
+    private static final long DRAIN_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final EmployeeChangeRepo changeRepo;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transaction;
+    private final EmployeeChangeBus bus;
+    private final EmployeeProperties.Outbox config;
+    // highest id handed to the bus since the last start over, relay thread only
+    private long cursor;
+    private final AtomicBoolean woken = new AtomicBoolean();
+    private volatile boolean running;
+    private volatile Thread relay;
+
+    public EmployeeOutboxRelay(EmployeeChangeRepo changeRepo, PlatformTransactionManager transactionManager,
+                               EmployeeChangeBus bus, EmployeeProperties properties) {
+        this.changeRepo = changeRepo;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.bus = bus;
+        this.config = properties.getOutbox();
+    }
+
+    /**
+     * Ends the idle sleep early, called after a transaction with outbox rows commits.
+     */
+    public void wakeUp() {
+        woken.set(true);
+        Thread thread = relay;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Publishes the next batch after the cursor.
+     *
+     * @return {@code true} when the batch was full, so more rows are probably waiting
+     */
+    boolean relayOnce() {
+        long after = cursor;
+        List<EmployeeChange> changes = readOnlyTransaction.execute(status ->
+                changeRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(config.getBatchSize())));
+        if (changes == null || changes.isEmpty()) {
+            return false;
+        }
+        List<EmployeeChangeEvent> events = new ArrayList<>(changes.size());
+        List<Long> ids = new ArrayList<>(changes.size());
+        for (EmployeeChange change : changes) {
+            events.add(EmployeeChangeEvent.of(change));
+            ids.add(change.getId());
+        }
+        if (!bus.publish(List.copyOf(events), () -> acknowledge(ids))) {
+            return false;
+        }
+        cursor = ids.get(ids.size() - 1);
+        return changes.size() == config.getBatchSize();
+    }
+
+    /**
+     * Waits until the bus has handled every batch, then starts the next read from the lowest id again.
+     */
+    void startOver() {
+        while (running && !bus.isIdle()) {
+            LockSupport.parkNanos(DRAIN_PARK_NANOS);
+        }
+        if (bus.isIdle()) {
+            cursor = 0;
+        }
+    }
+
+    private void acknowledge(List<Long> ids) {
+        try {
+            transaction.executeWithoutResult(status -> changeRepo.removeAllByIdIn(ids));
+        } catch (RuntimeException e) {
+            // the changes were delivered, they will be delivered once more
+            log.warn("Deleting {} delivered employee changes from the outbox failed", ids.size(), e);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                woken.set(false);
+                if (!relayOnce()) {
+                    startOver();
+                    // a commit during the read or the drain, read again right away
+                    if (!woken.get()) {
+                        LockSupport.parkNanos(config.getPollInterval().toNanos());
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Reading the employee outbox failed, retrying in {}", config.getRetryDelay(), e);
+                LockSupport.parkNanos(config.getRetryDelay().toNanos());
+            }
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return config.isEnabled() && config.isRelayEnabled();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "employee-outbox-relay");
+        thread.setDaemon(true);
+        relay = thread;
+        thread.start();
+    }
+
+    /**
+     * Rows relayed but not confirmed yet stay in the outbox and are delivered again after the next start.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = relay;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            relay = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return EmployeeChangeBus.PHASE + 1;
+    }
+}
@@ -0,0 +1,337 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.repository.EmployeeRepo;
+import com.training.unittest.service.dto.EmployeeView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over first name, last name and email, for case-insensitive fragment search
+ * ({@code "farz"}, {@code "gmail"}). Every three-character window of a value points to a {@link LongPostings}
+ * list of employee ids, a fragment matches the ids present in the lists of all its trigrams. Names and emails
+ * have lists of their own, and every value also gets a trigram that marks its start, so candidates come in
+ * ranked order: name prefix, name infix, email prefix, email infix, then ascending id.
+ * <p>
+ * Writes only add postings. Old values of updated employees and deleted employees stay in the lists, and
+ * trigram matches can be false positives for fragments longer than three characters, so callers check
+ * {@link #matches} on the current row. The index is rebuilt in the background at startup and once the
+ * stale share exceeds {@code employee.search-index.rebuild-ratio}; until the first build it is not
+ * {@link #isReady ready}.
+ * <p>
+ * Costs about 8 bytes per trigram of every value, some 300 bytes per employee with typical names and emails.
+ */
+@Slf4j
+@Component
+public class EmployeeSearchIndex {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+    public static final int MAX_QUERY_LENGTH = 100;
+
+    private static final int NAME = 0;
+    private static final int EMAIL = 1;
+    private static final char START = '\u0001';
+    private static final int BUILD_BATCH = 1_000;
+
+    private final EmployeeRepo employeeRepo;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor taskExecutor;
+    private final EmployeeProperties.SearchIndex config;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong stale = new AtomicLong();
+    private volatile Index active;
+    private volatile Index building;
+
+    public EmployeeSearchIndex(EmployeeRepo employeeRepo, PlatformTransactionManager transactionManager,
+                               TaskExecutor taskExecutor, EmployeeProperties properties) {
+        this.employeeRepo = employeeRepo;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.config = properties.getSearchIndex();
+    }
+
+    public boolean isReady() {
+        return active != null;
+    }
+
+    /**
+     * Indexes new values of an employee, {@code null} values are skipped.
+     */
+    public void add(long id, String firstName, String lastName, String email) {
+        // building first: a rebuild publishes the new index as active before it clears building
+        Index next = building;
+        Index index = active;
+        if (index == null && next == null) {
+            return;
+        }
+        long[] keys = keys(firstName, lastName, email);
+        if (next != null) {
+            next.add(id, keys);
+        }
+        if (index != null && index != next) {
+            index.add(id, keys);
+        }
+    }
+
+    /**
+     * Records postings that no longer match their employee, after updates and deletes.
+     */
+    public void recordStale(long count) {
+        Index index = active;
+        if (index != null && stale.addAndGet(count) > index.documents * config.getRebuildRatio()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Ids of the employees that may match {@code query}, best first, at most {@code max} of them.
+     *
+     * @param query normalized with {@link #normalizeQuery}
+     * @throws IllegalStateException when the index is not built yet
+     */
+    public long[] candidates(String query, int max) {
+        Index index = active;
+        if (index == null) {
+            throw new IllegalStateException("The search index is not built yet");
+        }
+        return index.candidates(query, max);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the query is shorter than {@link #MIN_QUERY_LENGTH} or longer than
+     *                                  {@link #MAX_QUERY_LENGTH} characters
+     */
+    public static String normalizeQuery(String query) {
+        String normalized = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        if (normalized.length() < MIN_QUERY_LENGTH || normalized.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("query must have " + MIN_QUERY_LENGTH + " to " + MAX_QUERY_LENGTH + " characters");
+        }
+        return normalized;
+    }
+
+    /**
+     * Whether the employee really contains the normalized query, to filter out stale and false candidates.
+     */
+    public static boolean matches(EmployeeView employee, String query) {
+        return contains(employee.firstName(), query) || contains(employee.lastName(), query) || contains(employee.email(), query);
+    }
+
+    private static boolean contains(String value, String query) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(query);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (config.isEnabled() && rebuilding.compareAndSet(false, true)) {
+            taskExecutor.execute(this::rebuildNow);
+        }
+    }
+
+    private void rebuildNow() {
+        try {
+            Index next = new Index();
+            // employees saved from now on go into both indexes, the scan below picks up everything committed before
+            building = next;
+            stale.set(0);
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<EmployeeView> employees = employeeRepo.streamAll()) {
+                    Iterator<EmployeeView> iterator = employees.iterator();
+                    while (iterator.hasNext()) {
+                        next.appendBatch(iterator);
+                    }
+                }
+            });
+            next.seal();
+            active = next;
+            log.info("Search index built from {} employees, {} trigrams", next.documents, next.postings.size());
+        } catch (RuntimeException e) {
+            log.warn("Building the search index failed, the previous index is kept until the next rebuild", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Distinct trigram keys of an employee's values, sorted.
+     */
+    private static long[] keys(String firstName, String lastName, String email) {
+        long[] keys = new long[16];
+        int size = 0;
+        for (int field = 0; field < 3; field++) {
+            String value = field == 0 ? firstName : field == 1 ? lastName : email;
+            if (value == null) {
+                continue;
+            }
+            String text = START + value.toLowerCase(Locale.ROOT);
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                }
+                keys[size++] = key(field == 2 ? EMAIL : NAME, text, i);
+            }
+        }
+        Arrays.sort(keys, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    private static long key(int field, CharSequence text, int offset) {
+        return (long) field << 48 | (long) text.charAt(offset) << 32 | (long) text.charAt(offset + 1) << 16 | text.charAt(offset + 2);
+    }
+
+    /**
+     * One generation of the index. Readers share the lock, writers hold it for the few lists of one employee.
+     */
+    private static final class Index {
+
+        private final Map<Long, LongPostings> postings = new HashMap<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile long documents;
+        private boolean sealed;
+
+        void appendBatch(Iterator<EmployeeView> employees) {
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < BUILD_BATCH && employees.hasNext(); i++) {
+                    EmployeeView employee = employees.next();
+                    for (long key : keys(employee.firstName(), employee.lastName(), employee.email())) {
+                        postings.computeIfAbsent(key, k -> new LongPostings()).append(employee.id());
+                    }
+                    documents++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Appends while the index is still being built, inserts in order once it is sealed.
+         */
+        void add(long id, long[] keys) {
+            lock.writeLock().lock();
+            try {
+                for (long key : keys) {
+                    LongPostings list = postings.computeIfAbsent(key, k -> new LongPostings());
+                    if (sealed) {
+                        list.insert(id);
+                    } else {
+                        list.append(id);
+                    }
+                }
+                documents++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void seal() {
+            lock.writeLock().lock();
+            try {
+                postings.values().forEach(LongPostings::seal);
+                sealed = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long[] candidates(String query, int max) {
+            long[] found = new long[max];
+            int count = 0;
+            lock.readLock().lock();
+            try {
+                for (int field : new int[]{NAME, EMAIL}) {
+                    count = intersect(lists(field, START + query), found, count);
+                    count = intersect(lists(field, query), found, count);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        /**
+         * Posting lists of all trigrams of {@code text}, shortest first; {@code null} when a trigram has none.
+         */
+        private List<LongPostings> lists(int field, String text) {
+            List<LongPostings> lists = new ArrayList<>(text.length() - 2);
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                LongPostings list = postings.get(key(field, text, i));
+                if (list == null) {
+                    return null;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            return lists;
+        }
+
+        /**
+         * Adds the ids present in every list to {@code found} until it is full, walking the shortest list and
+         * seeking in the others; skips ids found by an earlier tier.
+         */
+        private static int intersect(List<LongPostings> lists, long[] found, int count) {
+            if (lists == null || count == found.length) {
+                return count;
+            }
+            int previous = count;
+            LongPostings shortest = lists.get(0);
+            int[] positions = new int[lists.size()];
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                long id = shortest.ids[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    LongPostings list = lists.get(j);
+                    positions[j] = list.seek(positions[j], id);
+                    if (positions[j] == list.size) {
+                        return count;
+                    }
+                    if (list.ids[positions[j]] != id) {
+                        continue candidates;
+                    }
+                }
+                if (!contains(found, previous, id)) {
+                    found[count++] = id;
+                    if (count == found.length) {
+                        return count;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private static boolean contains(long[] ids, int size, long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.training.unittest.service.support;
+
+/**
+ * Field checks shared by the write paths and the CSV import.
+ */
+public final class EmployeeValidator {
+
+    /** Length of the varchar columns Hibernate generates for the employee fields. */
+    public static final int MAX_LENGTH = 255;
+
+    private EmployeeValidator() {
+    }
+
+    /**
+     * @return why the fields cannot be stored, {@code null} when they can
+     */
+    public static String validate(String firstName, String lastName, String email) {
+        if (firstName == null || lastName == null || email == null) {
+            return "firstName, lastName and email are required";
+        }
+        return validateChanges(firstName, lastName, email);
+    }
+
+    /**
+     * The checks of {@link #validate} for a partial update: {@code null} fields keep their stored value and pass.
+     *
+     * @return why the fields cannot be stored, {@code null} when they can
+     */
+    public static String validateChanges(String firstName, String lastName, String email) {
+        if (tooLong(firstName) || tooLong(lastName) || tooLong(email)) {
+            return "firstName, lastName and email must be at most " + MAX_LENGTH + " characters";
+        }
+        if (email != null && !isEmail(email)) {
+            return "email is not valid: " + email;
+        }
+        return null;
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_LENGTH;
+    }
+
+    private static boolean isEmail(String email) {
+        int at = email.indexOf('@');
+        if (at <= 0 || at != email.lastIndexOf('@')) {
+            return false;
+        }
+        int dot = email.lastIndexOf('.');
+        if (dot < at + 2 || dot == email.length() - 1) {
+            return false;
+        }
+        for (int i = 0; i < email.length(); i++) {
+            if (Character.isWhitespace(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,326 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.exception.EmployeeBusyException;
+import com.training.unittest.exception.EmployeeExceptions;
+import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.dto.EmployeeView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for full employee updates ({@code employee.write-behind.enabled}). An update is acknowledged
+ * once it is synced to the {@link UpdateJournal}; only the latest update per employee is kept, and a background
+ * thread writes them every {@code flush-interval} through {@link EmployeeService#updateEmployees}, a batch of
+ * {@code employee.batch-size} per transaction. Buffered updates stay readable here until their flush has committed,
+ * which gives this node read-your-writes.
+ * <p>
+ * An update whose flush fails for a business reason (its email was taken meanwhile) is dropped and counted as
+ * {@code employee.write-behind.dropped}; any other failure keeps it for the next flush. After a crash the journal is
+ * replayed on startup, which can write updates again that were flushed right before the crash.
+ */
+@Slf4j
+@Component
+public class EmployeeWriteBehind implements SmartLifecycle {
+
+    /**
+     * Started before the web server accepts requests, stopped after it has drained them.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final ObjectProvider<EmployeeService> employeeService;
+    private final EmployeeProperties.WriteBehind config;
+    private final int batchSize;
+    private final Counter dropped;
+
+    private final Map<Long, EmployeeView> pending = new ConcurrentHashMap<>();
+    // taken out of pending by the running flush, still visible to reads until it commits
+    private final Map<Long, EmployeeView> flushing = new ConcurrentHashMap<>();
+    // guards pending against the flush taking it over, and orders the journal like the map
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private UpdateJournal journal;
+    private volatile boolean running;
+    private volatile Thread flusher;
+
+    public EmployeeWriteBehind(ObjectProvider<EmployeeService> employeeService, EmployeeProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.employeeService = employeeService;
+        this.config = properties.getWriteBehind();
+        this.batchSize = properties.getBatchSize();
+        this.dropped = Counter.builder("employee.write-behind.dropped")
+                .description("Buffered employee updates that could not be written")
+                .register(meterRegistry);
+        Gauge.builder("employee.write-behind.pending", pending, Map::size)
+                .description("Employees with a buffered update")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * The buffered update of an employee, as the database will hold it after the flush.
+     */
+    public Optional<EmployeeView> pending(long id) {
+        EmployeeView update = pending.get(id);
+        return Optional.ofNullable(update != null ? update : flushing.get(id));
+    }
+
+    /**
+     * Buffers a full update, replacing an earlier one of the same employee. Returns once it is on disk.
+     *
+     * @throws EmployeeBusyException when the buffer stays full for {@code acquire-timeout}
+     */
+    public void submit(EmployeeView update) {
+        long position;
+        lock.lock();
+        try {
+            awaitRoom(update.id());
+            position = journal.append(update);
+            pending.put(update.id(), update);
+        } finally {
+            lock.unlock();
+        }
+        journal.sync(position);
+    }
+
+    /**
+     * Applies the non-null values to the buffered update of the employee, so they are not overwritten by its flush.
+     *
+     * @return {@code false} when no update of the employee is buffered, the caller writes the change itself
+     */
+    public boolean mergeIfPending(long id, String firstName, String lastName, String email) {
+        long position;
+        lock.lock();
+        try {
+            EmployeeView base = pending(id).orElse(null);
+            if (base == null) {
+                return false;
+            }
+            EmployeeView merged = new EmployeeView(id, firstName != null ? firstName : base.firstName(),
+                    lastName != null ? lastName : base.lastName(), email != null ? email : base.email());
+            position = journal.append(merged);
+            pending.put(id, merged);
+        } finally {
+            lock.unlock();
+        }
+        journal.sync(position);
+        return true;
+    }
+
+    /**
+     * Forgets the buffered update of a deleted employee. A flush already running skips it once the delete committed.
+     */
+    public void discard(long id) {
+        pending.remove(id);
+        flushing.remove(id);
+    }
+
+    private void awaitRoom(long id) {
+        if (pending.containsKey(id) || pending.size() < config.getMaxPending()) {
+            return;
+        }
+        wakeFlusher();
+        long nanos = config.getAcquireTimeout().toNanos();
+        try {
+            while (!pending.containsKey(id) && pending.size() >= config.getMaxPending()) {
+                if (nanos <= 0) {
+                    throw EmployeeBusyException.INSTANCE;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw EmployeeBusyException.INSTANCE;
+        }
+    }
+
+    private void wakeFlusher() {
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Writes all buffered updates. Runs on the flusher thread, one flush at a time.
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            List<EmployeeView> updates;
+            Path segment;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                segment = journal.rotate();
+                updates = new ArrayList<>(pending.values());
+                flushing.putAll(pending);
+                pending.clear();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            List<EmployeeView> failed = new ArrayList<>();
+            for (int from = 0; from < updates.size(); from += batchSize) {
+                write(updates.subList(from, Math.min(from + batchSize, updates.size())), failed);
+            }
+            requeue(failed);
+            journal.delete(segment);
+        } finally {
+            flushing.clear();
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<EmployeeView> updates, List<EmployeeView> failed) {
+        try {
+            employeeService.getObject().updateEmployees(updates);
+        } catch (EmployeeExceptions | DataIntegrityViolationException e) {
+            if (updates.size() > 1) {
+                // find the offending update, the others go through one by one
+                for (EmployeeView update : updates) {
+                    write(List.of(update), failed);
+                }
+                return;
+            }
+            dropped.increment();
+            log.warn("Dropping the buffered update of employee {}: {}", updates.get(0).id(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Writing {} buffered employee updates failed, retrying with the next flush", updates.size(), e);
+            failed.addAll(updates);
+        }
+    }
+
+    /**
+     * Buffers failed updates again, unless a newer update of the same employee arrived during the flush.
+     */
+    private void requeue(List<EmployeeView> failed) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        long position = 0;
+        lock.lock();
+        try {
+            for (EmployeeView update : failed) {
+                // a delete during the flush removed the update from flushing, it must not come back
+                if (flushing.containsKey(update.id()) && pending.putIfAbsent(update.id(), update) == null) {
+                    position = journal.append(update);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        journal.sync(position);
+    }
+
+    /**
+     * Opens the journal and buffers the updates a previous run left in it.
+     */
+    void open() {
+        journal = new UpdateJournal(config.getJournal());
+        try {
+            for (EmployeeView update : journal.open()) {
+                pending.put(update.id(), update);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Opening the update journal in " + config.getJournal() + " failed", e);
+        }
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} buffered employee updates from the journal", pending.size());
+        }
+    }
+
+    void close() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Closing the update journal failed", e);
+        }
+    }
+
+    private void run() {
+        long intervalNanos = config.getFlushInterval().toNanos();
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Flushing buffered employee updates failed", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return config.isEnabled();
+    }
+
+    @Override
+    public void start() {
+        open();
+        running = true;
+        Thread thread = new Thread(this::run, "employee-write-behind");
+        thread.setDaemon(true);
+        flusher = thread;
+        thread.start();
+    }
+
+    /**
+     * Writes what is still buffered; whatever fails stays in the journal for the next start.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Flushing buffered employee updates on shutdown failed, they are replayed on the next start", e);
+        }
+        close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
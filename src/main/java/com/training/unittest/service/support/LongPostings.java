@@ -0,0 +1,75 @@
+package com.training.unittest.service.support;
+
+import java.util.Arrays;
+
+/**
+ * Posting list of {@link EmployeeSearchIndex}: employee ids in a plain {@code long[]}, ascending and without
+ * duplicates once {@link #seal sealed}. Not thread-safe, the index guards it.
+ */
+final class LongPostings {
+
+    long[] ids = new long[2];
+    int size;
+
+    /**
+     * Adds at the end whatever the order, for bulk loading. {@link #seal} restores the order afterwards.
+     */
+    void append(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * Keeps the list sorted. Ids are handed out in ascending order, so new employees are appended; only
+     * changed values of existing employees shift the tail.
+     */
+    void insert(long id) {
+        if (size == 0 || ids[size - 1] < id) {
+            append(id);
+            return;
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        append(0);
+        System.arraycopy(ids, position, ids, position + 1, size - 1 - position);
+        ids[position] = id;
+    }
+
+    /**
+     * Sorts, drops duplicates and trims the array to its size.
+     */
+    void seal() {
+        Arrays.sort(ids, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        size = distinct;
+        ids = Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Position of the first id at or after {@code from} that is not less than {@code id}, {@link #size} when there
+     * is none. Gallops ahead first, so walking a long list with ids taken from a short one skips most of it.
+     */
+    int seek(int from, long id) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && ids[high] < id) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        int position = Arrays.binarySearch(ids, low, high, id);
+        return position >= 0 ? position : -position - 1;
+    }
+}
@@ -0,0 +1,29 @@
+package com.training.unittest.service.support;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks picked by key hash. Work on equal keys is serialized, work on different keys
+ * only contends when two keys land on the same stripe.
+ */
+public class StripedLocks {
+
+    private final Lock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new Lock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        // spread the high bits, String hashes of similar keys often differ only there
+        return locks[(h ^ (h >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,104 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.model.EmployeeTableVersion;
+import com.training.unittest.repository.EmployeeTableVersionRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Change counter of the whole employee table, the ETag of the list endpoint. It lives in the database, so a write on
+ * any instance changes the version every instance reports, and reading it is a sum over {@link #STRIPES} rows instead
+ * of a look at the table itself.
+ * <p>
+ * A write transaction increments one random stripe, once, right before it commits: the row lock is taken after all
+ * employee rows are locked and held only for the commit, so writers neither deadlock on it nor wait long for it.
+ */
+@Slf4j
+@Component
+public class TableVersionCounter implements SmartInitializingSingleton {
+
+    static final int STRIPES = 16;
+
+    private final EmployeeTableVersionRepo tableVersionRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    public TableVersionCounter(EmployeeTableVersionRepo tableVersionRepo, PlatformTransactionManager transactionManager) {
+        this.tableVersionRepo = tableVersionRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Marks the current transaction as a write of the employee table. Repeated calls in one transaction count once.
+     */
+    public void increment() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementStripe();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                incrementStripe();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TableVersionCounter.this);
+            }
+        });
+    }
+
+    private void incrementStripe() {
+        int stripe = ThreadLocalRandom.current().nextInt(STRIPES);
+        if (tableVersionRepo.increment(stripe) == 0) {
+            // only when creating the stripes at startup failed
+            tableVersionRepo.saveAndFlush(new EmployeeTableVersion(stripe, 1));
+        }
+    }
+
+    /**
+     * Changes with every committed write of the employee table.
+     */
+    public long current() {
+        return tableVersionRepo.sumVersions();
+    }
+
+    /**
+     * Creates the stripes missing in a new database.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Integer> existing = tableVersionRepo.findAll().stream()
+                        .map(EmployeeTableVersion::getStripe)
+                        .collect(Collectors.toSet());
+                List<EmployeeTableVersion> missing = new ArrayList<>();
+                for (int stripe = 0; stripe < STRIPES; stripe++) {
+                    if (!existing.contains(stripe)) {
+                        missing.add(new EmployeeTableVersion(stripe, 0));
+                    }
+                }
+                tableVersionRepo.saveAll(missing);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.info("Another instance created the table version stripes concurrently");
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.service.dto.EmployeeView;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file log of the updates held by {@link EmployeeWriteBehind}, so they survive a crash. Records go to
+ * numbered segment files; every flush starts a new segment and deletes the old one once its updates are in the
+ * database. A record is {@code length, crc32, payload}, a torn record at the end of a segment is ignored.
+ * <p>
+ * {@link #sync} forces the file to disk. Threads that append concurrently share one force: whoever syncs first
+ * covers the records of the others too.
+ */
+final class UpdateJournal implements Closeable {
+
+    private static final String SUFFIX = ".journal";
+    // three strings of at most 64K bytes each, anything longer is the garbage of a torn record
+    private static final int MAX_RECORD = 8 + 3 * (1 + 2 + 65_535);
+
+    private final Path directory;
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    private Path segment;
+    private long sequence;
+    // bytes appended and bytes forced to disk over all segments, guarded by this and syncLock respectively
+    private long written;
+    private long synced;
+
+    UpdateJournal(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens a new segment and returns the updates left in the segments of the previous run, oldest first. They are
+     * copied into the new segment before the old ones are deleted.
+     */
+    synchronized List<EmployeeView> open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        List<EmployeeView> updates = new ArrayList<>();
+        for (Path old : segments) {
+            read(old, updates);
+            String name = old.getFileName().toString();
+            sequence = Math.max(sequence, Long.parseLong(name.substring(0, name.length() - SUFFIX.length())) + 1);
+        }
+        openSegment();
+        for (EmployeeView update : updates) {
+            append(update);
+        }
+        channel.force(false);
+        synced = written;
+        for (Path old : segments) {
+            Files.delete(old);
+        }
+        return updates;
+    }
+
+    private static void read(Path file, List<EmployeeView> updates) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                byte[] payload;
+                long checksum;
+                try {
+                    int length = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD) {
+                        return;
+                    }
+                    payload = new byte[length];
+                    checksum = in.readInt() & 0xFFFFFFFFL;
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    return;
+                }
+                crc.reset();
+                crc.update(payload);
+                if (crc.getValue() != checksum) {
+                    return;
+                }
+                updates.add(decode(payload));
+            }
+        }
+    }
+
+    private void openSegment() throws IOException {
+        segment = directory.resolve("%019d%s".formatted(sequence++, SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * @return position to pass to {@link #sync} once the caller no longer holds its own locks
+     */
+    synchronized long append(EmployeeView update) {
+        byte[] payload = encode(update);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Appending to the update journal " + segment + " failed", e);
+        }
+        written += record.limit();
+        return written;
+    }
+
+    /**
+     * Returns once everything up to {@code position} is on disk.
+     */
+    void sync(long position) {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = written;
+                current = channel;
+            }
+            try {
+                current.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Syncing the update journal failed", e);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Starts a new segment, later appends go there.
+     *
+     * @return the previous segment, to {@link #delete} once its updates are in the database
+     */
+    Path rotate() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                Path previous = segment;
+                try {
+                    channel.force(false);
+                    channel.close();
+                    openSegment();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Starting a new update journal segment failed", e);
+                }
+                synced = written;
+                return previous;
+            }
+        }
+    }
+
+    void delete(Path previous) {
+        try {
+            Files.deleteIfExists(previous);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Deleting the update journal segment " + previous + " failed", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private static byte[] encode(EmployeeView update) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(update.id());
+            writeNullable(out, update.firstName());
+            writeNullable(out, update.lastName());
+            writeNullable(out, update.email());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static EmployeeView decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        return new EmployeeView(in.readLong(), readNullable(in), readNullable(in), readNullable(in));
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,275 @@
+package com.training.unittest.controller;
+
+import com.training.unittest.exception.DuplicateEmailException;
+import com.training.unittest.exception.EmployeeVersionMismatchException;
+import com.training.unittest.model.Employee;
+import com.training.unittest.service.ReactiveEmployeeService;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.ResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.publisher.PublisherProbe;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@WebFluxTest(ReactiveEmployeeController.class)
+public class ReactiveEmployeeControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @MockBean
+    private ReactiveEmployeeService employeeService;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Mj")
+                .lastName("Farzaneh")
+                .email("mjfarzaneh7@gmail.com")
+                .build();
+    }
+
+    @DisplayName("createEmployee RestAPI")
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        webTestClient.post().uri("/api/employee")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    @DisplayName("createEmployee RestAPI (duplicate email)")
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturnConflict() {
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willReturn(Mono.error(new DuplicateEmailException(employee.getEmail(), null, false)));
+
+        webTestClient.post().uri("/api/employee")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("CONFLICT")
+                .jsonPath("$.errorCode").isEqualTo("Employee already exists with given email: " + employee.getEmail());
+    }
+
+    @DisplayName("createEmployees RestAPI")
+    @Test
+    public void givenEmployeeList_whenCreateEmployees_thenReturnResultPerEmployee() {
+        given(employeeService.saveEmployees(any())).willReturn(Mono.just(List.of(
+                new ResponseDto(HttpStatus.CREATED, null, employee),
+                new ResponseDto(HttpStatus.CONFLICT, "Employee already exists with given email: " + employee.getEmail(), null))));
+
+        webTestClient.post().uri("/api/employee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(employee, employee))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].code").isEqualTo("CREATED")
+                .jsonPath("$[1].code").isEqualTo("CONFLICT");
+    }
+
+    @DisplayName("getAllEmployees RestAPI")
+    @Test
+    public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeeList() {
+        given(employeeService.getTableVersion()).willReturn(Mono.just(7L));
+        given(employeeService.getAllEmployees()).willReturn(Flux.just(
+                EmployeeView.of(employee), new EmployeeView(2L, "Niusha", "Tahmasebi", "niushatt@gmail.com")));
+
+        webTestClient.get().uri("/api/employee")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"7\"")
+                .expectBodyList(EmployeeView.class)
+                .hasSize(2);
+    }
+
+    @DisplayName("getAllEmployees RestAPI (unchanged table)")
+    @Test
+    public void givenCurrentListETag_whenGetAllEmployees_thenReturnNotModifiedWithoutReadingTheTable() {
+        PublisherProbe<EmployeeView> rows = PublisherProbe.of(Flux.just(EmployeeView.of(employee)));
+        given(employeeService.getTableVersion()).willReturn(Mono.just(7L));
+        given(employeeService.getAllEmployees()).willReturn(rows.flux());
+
+        webTestClient.get().uri("/api/employee")
+                .header("If-None-Match", "W/\"7\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        rows.assertWasNotSubscribed();
+    }
+
+    @DisplayName("exportEmployees RestAPI")
+    @Test
+    public void givenListOfEmployees_whenExportEmployees_thenReturnOneJsonObjectPerLine() {
+        given(employeeService.getAllEmployees()).willReturn(Flux.just(
+                EmployeeView.of(employee), new EmployeeView(2L, "Niusha", "Tahmasebi", "niushatt@gmail.com")));
+
+        String body = webTestClient.get().uri("/api/employee/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(body).isNotNull();
+        assertThat(body.lines()).hasSize(2).allSatisfy(line -> assertThat(line).startsWith("{\"id\":"));
+    }
+
+    @DisplayName("getEmployeePage RestAPI (invalid cursor)")
+    @Test
+    public void givenInvalidCursor_whenGetEmployeePage_thenReturnBadRequest() {
+        webTestClient.get().uri("/api/employee/page?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @DisplayName("searchEmployees RestAPI (blank last name)")
+    @Test
+    public void givenBlankLastName_whenSearchEmployees_thenReturnBadRequest() {
+        given(employeeService.searchEmployees(null, " ", false, 0, 50))
+                .willReturn(Mono.error(new IllegalArgumentException()));
+
+        webTestClient.get().uri("/api/employee/search?last= ")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @DisplayName("findEmployees RestAPI")
+    @Test
+    public void givenFragment_whenFindEmployees_thenReturnRankedEmployees() {
+        given(employeeService.findEmployees("farz", 20)).willReturn(Mono.just(List.of(EmployeeView.of(employee))));
+        given(employeeService.findEmployees("fa", 20)).willReturn(Mono.error(new IllegalArgumentException()));
+
+        webTestClient.get().uri("/api/employee/find?q=farz")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].email").isEqualTo(employee.getEmail());
+        webTestClient.get().uri("/api/employee/find?q=fa")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @DisplayName("getEmployeeById RestAPI (unchanged employee)")
+    @Test
+    public void givenCurrentETag_whenGetEmployeeById_thenReturnNotModified() {
+        employee.setVersion(3);
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Mono.just(EmployeeView.of(employee)));
+
+        webTestClient.get().uri("/api/employee/{id}", employee.getId())
+                .header("If-None-Match", "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "\"3\"")
+                .expectBody().isEmpty();
+    }
+
+    @DisplayName("getEmployeeById RestAPI (negative scenario)")
+    @Test
+    public void givenUnknownEmployeeId_whenGetEmployeeById_thenReturnNotFound() {
+        given(employeeService.getEmployeeById(2L)).willReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/employee/{id}", 2)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("NOT_FOUND");
+    }
+
+    @DisplayName("updateEmployee RestAPI")
+    @Test
+    public void givenUpdatedEmployee_whenUpdateEmployee_thenReturnUpdatedEmployee() {
+        given(employeeService.getEmployeeById(1L)).willReturn(Mono.just(EmployeeView.of(employee)));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        webTestClient.put().uri("/api/employee/{id}", 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder().firstName("Mj").lastName("F").email("m.javad2007@gmail.com").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.email").isEqualTo("m.javad2007@gmail.com");
+    }
+
+    @DisplayName("updateEmployee and patchEmployee RestAPI (If-Match)")
+    @Test
+    public void givenIfMatch_whenUpdateOrPatchEmployee_thenReturnNewETagOrPreconditionFailed() {
+        given(employeeService.updateEmployee(any(Employee.class), eq(3L))).willReturn(Mono.just(4L));
+        given(employeeService.patchEmployee(eq(1L), any(Employee.class), eq(2L)))
+                .willReturn(Mono.error(EmployeeVersionMismatchException.INSTANCE));
+
+        webTestClient.put().uri("/api/employee/{id}", 1)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder().firstName("Mj").lastName("F").email("m.javad2007@gmail.com").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1);
+        webTestClient.patch().uri("/api/employee/{id}", 1)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\":\"m.javad2007@gmail.com\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(employeeService, never()).getEmployeeById(any());
+    }
+
+    @DisplayName("patchEmployee RestAPI (negative scenario)")
+    @Test
+    public void givenUnknownEmployeeId_whenPatchEmployee_thenReturnNotFound() {
+        given(employeeService.patchEmployee(any(Long.class), any(Employee.class))).willReturn(Mono.just(false));
+
+        webTestClient.patch().uri("/api/employee/{id}", 2)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\":\"m.javad2007@gmail.com\"}")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @DisplayName("deleteEmployees RestAPI")
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnOK() {
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(Mono.just(3));
+
+        webTestClient.delete().uri("/api/employee?ids=1,2,3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("3 users successfully deleted.");
+    }
+}
@@ -0,0 +1,118 @@
+package com.training.unittest.service;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.model.Employee;
+import com.training.unittest.repository.EmployeeReactiveRepo;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.PageCursor;
+import com.training.unittest.service.impl.ReactiveEmployeeServiceImpl;
+import com.training.unittest.service.support.EmployeeCache;
+import com.training.unittest.service.support.EmployeeErrorMetrics;
+import com.training.unittest.service.support.EmployeeWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveEmployeeServiceTest {
+
+    @Mock
+    private EmployeeReactiveRepo employeeReactiveRepo;
+    @Mock
+    private EmployeeService employeeService;
+    @Mock
+    private EmployeeWriteBehind writeBehind;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmployeeCache employeeCache = new EmployeeCache(new EmployeeProperties(), meterRegistry);
+    private final Scheduler jdbcScheduler = Schedulers.newBoundedElastic(2, 10, "jdbc-test");
+    private ReactiveEmployeeServiceImpl reactiveEmployeeService;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        reactiveEmployeeService = new ReactiveEmployeeServiceImpl(employeeReactiveRepo, employeeService, employeeCache,
+                new EmployeeErrorMetrics(meterRegistry), writeBehind, jdbcScheduler);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Mj")
+                .lastName("Farzaneh")
+                .email("mjfarzaneh7@gmail.com")
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcScheduler.dispose();
+    }
+
+    @DisplayName("saveEmployee method")
+    @Test
+    public void givenEmployeeObject_whenSaveEmployee_thenRunBlockingServiceOnJdbcScheduler() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        given(employeeService.saveEmployee(employee)).willAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return employee;
+        });
+
+        Mono<Employee> saved = reactiveEmployeeService.saveEmployee(employee);
+
+        verifyNoInteractions(employeeService);
+        StepVerifier.create(saved).expectNext(employee).verifyComplete();
+        assertThat(thread.get()).startsWith("jdbc-test");
+    }
+
+    @DisplayName("getEmployeesAfter method")
+    @Test
+    public void givenMoreRowsThanLimit_whenGetEmployeesAfter_thenReturnPageWithNextCursor() {
+        EmployeeView first = EmployeeView.of(employee);
+        EmployeeView second = new EmployeeView(2L, "Niusha", "Tahmasebi", "niushatt@gmail.com");
+        given(employeeReactiveRepo.findPageAfter(0L, 2)).willReturn(Flux.just(first, second));
+
+        StepVerifier.create(reactiveEmployeeService.getEmployeesAfter(0L, 1))
+                .assertNext(page -> {
+                    assertThat(page.getContent()).containsExactly(first);
+                    assertThat(page.getNextCursor()).isEqualTo(PageCursor.encode(1L));
+                })
+                .verifyComplete();
+    }
+
+    @DisplayName("getEmployeeById method (cached)")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenSkipDatabase() {
+        employeeCache.put(employee);
+
+        StepVerifier.create(reactiveEmployeeService.getEmployeeById(1L))
+                .expectNext(EmployeeView.of(employee))
+                .verifyComplete();
+        verifyNoInteractions(employeeReactiveRepo);
+    }
+
+    @DisplayName("getEmployeeById method (negative scenario)")
+    @Test
+    public void givenUnknownId_whenGetEmployeeById_thenReturnEmptyAndCountNotFound() {
+        given(employeeReactiveRepo.findViewById(2L)).willReturn(Mono.empty());
+
+        StepVerifier.create(reactiveEmployeeService.getEmployeeById(2L)).verifyComplete();
+
+        verify(employeeReactiveRepo).findViewById(2L);
+        assertThat(meterRegistry.get(EmployeeErrorMetrics.NAME).tag("cause", "not_found").counter().count())
+                .isEqualTo(1);
+    }
+}
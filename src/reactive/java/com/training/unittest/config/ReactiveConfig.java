@@ -0,0 +1,50 @@
+package com.training.unittest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive deployment mode, built with the {@code reactive} Maven profile and enabled by the {@code reactive} Spring
+ * profile. The same {@code /api/employee} endpoints are served by WebFlux on Netty: reads stream from R2DBC, writes
+ * reuse the JPA service on {@link #jdbcScheduler}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    /**
+     * Spring Boot skips its DataSource once an R2DBC connection factory exists, the JPA write path still needs one.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Tomcat is on the classpath for the servlet mode and would otherwise be preferred.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Runs blocking JDBC calls, one thread per pooled connection so no thread waits for the pool. Queued calls
+     * wait without holding a thread.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(HikariDataSource dataSource) {
+        int poolSize = dataSource.getMaximumPoolSize();
+        return Schedulers.newBoundedElastic(poolSize, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "jdbc");
+    }
+}
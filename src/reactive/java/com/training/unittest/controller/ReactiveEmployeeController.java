@@ -0,0 +1,158 @@
+package com.training.unittest.controller;
+
+import com.training.unittest.exception.EmployeeNotFoundException;
+import com.training.unittest.model.Employee;
+import com.training.unittest.service.ReactiveEmployeeService;
+import com.training.unittest.service.dto.EmployeePage;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.PageCursor;
+import com.training.unittest.service.dto.ResponseDto;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux variant of {@link EmployeeController} for the reactive deployment mode, same paths and responses.
+ */
+@RestController
+@RequestMapping("/api/employee")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor
+public class ReactiveEmployeeController {
+
+    private final ReactiveEmployeeService employeeService;
+
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @PostMapping("batch")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<List<ResponseDto>> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
+    /**
+     * Written as a JSON array while the rows are read, a slow client slows the read down instead of filling memory.
+     * A matching {@code If-None-Match} gets 304 and the rows are never queried.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Flux<EmployeeView>>> getAllEmployees() {
+        return employeeService.getTableVersion()
+                .map(version -> ResponseEntity.ok()
+                        .eTag(EmployeeETags.list(version))
+                        .body(employeeService.getAllEmployees()));
+    }
+
+    @GetMapping("page")
+    public Mono<ResponseEntity<EmployeePage>> getEmployeePage(@RequestParam(value = "cursor", required = false) String cursor,
+                                                              @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        long afterId;
+        try {
+            afterId = cursor == null ? 0L : PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return employeeService.getEmployeesAfter(afterId, limit).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("search")
+    public Mono<ResponseEntity<List<EmployeeView>>> searchEmployees(@RequestParam(value = "first", required = false) String first,
+                                                                    @RequestParam("last") String last,
+                                                                    @RequestParam(value = "prefix", defaultValue = "false") boolean prefix,
+                                                                    @RequestParam(value = "page", defaultValue = "0") int page,
+                                                                    @RequestParam(value = "size", defaultValue = "50") int size) {
+        return employeeService.searchEmployees(first, last, prefix, page, size)
+                .map(ResponseEntity::ok)
+                .onErrorReturn(IllegalArgumentException.class, ResponseEntity.badRequest().build());
+    }
+
+    @GetMapping("find")
+    public Mono<ResponseEntity<List<EmployeeView>>> findEmployees(@RequestParam("q") String query,
+                                                                  @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return employeeService.findEmployees(query, limit)
+                .map(ResponseEntity::ok)
+                .onErrorReturn(IllegalArgumentException.class, ResponseEntity.badRequest().build())
+                .onErrorReturn(IllegalStateException.class, ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * Full-table export as newline-delimited JSON, with the same backpressure as {@link #getAllEmployees()}.
+     */
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EmployeeView> exportEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<EmployeeView>> getEmployeeById(@PathVariable("id") Long id) {
+        return employeeService.getEmployeeById(id)
+                .map(EmployeeETags::ok)
+                .switchIfEmpty(Mono.error(EmployeeNotFoundException.INSTANCE));
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") Long id, @RequestBody Employee employee,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (EmployeeETags.isConditional(ifMatch)) {
+            Employee changedEmployee = Employee.builder()
+                    .id(id)
+                    .firstName(employee.getFirstName())
+                    .lastName(employee.getLastName())
+                    .email(employee.getEmail())
+                    .build();
+            return employeeService.updateEmployee(changedEmployee, EmployeeETags.version(ifMatch))
+                    .map(version -> {
+                        changedEmployee.setVersion(version);
+                        return ResponseEntity.ok().eTag(EmployeeETags.of(version)).body(changedEmployee);
+                    });
+        }
+        return employeeService.getEmployeeById(id)
+                .flatMap(foundedEmployee -> employeeService.updateEmployee(Employee.builder()
+                        .id(foundedEmployee.id())
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .build()))
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.error(EmployeeNotFoundException.INSTANCE));
+    }
+
+    @PatchMapping("{id}")
+    public Mono<ResponseEntity<Void>> patchEmployee(@PathVariable("id") Long id, @RequestBody Employee employee,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (EmployeeETags.isConditional(ifMatch)) {
+            return employeeService.patchEmployee(id, employee, EmployeeETags.version(ifMatch))
+                    .map(version -> ResponseEntity.noContent().eTag(EmployeeETags.of(version)).<Void>build());
+        }
+        return employeeService.patchEmployee(id, employee)
+                .flatMap(patched -> patched
+                        ? Mono.just(ResponseEntity.noContent().<Void>build())
+                        : Mono.error(EmployeeNotFoundException.INSTANCE));
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") Long id) {
+        return employeeService.deleteEmployee(id)
+                .flatMap(deleted -> deleted
+                        ? Mono.just(ResponseEntity.ok("User with userId: " + id + " successfully deleted."))
+                        : Mono.error(EmployeeNotFoundException.INSTANCE));
+    }
+
+    @DeleteMapping
+    public Mono<ResponseEntity<String>> deleteEmployees(@RequestParam("ids") List<Long> ids) {
+        return employeeService.deleteEmployees(ids)
+                .map(deleted -> ResponseEntity.ok(deleted + " users successfully deleted."));
+    }
+}
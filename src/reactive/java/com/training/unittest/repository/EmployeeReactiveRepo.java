@@ -0,0 +1,71 @@
+package com.training.unittest.repository;
+
+import com.training.unittest.service.dto.EmployeeView;
+import io.r2dbc.spi.Readable;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * R2DBC access to the {@code employee} table for the reactive deployment mode. Only reads live here: ids,
+ * caches and email checks belong to the JPA write path, which the reactive service reuses.
+ * <p>
+ * A class on {@link DatabaseClient} rather than a Spring Data interface: {@code Employee} is a JPA entity, so the
+ * JPA module would claim any repository interface declared for it.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor
+public class EmployeeReactiveRepo {
+
+    private static final String SELECT_VIEW = "SELECT id, first_name, last_name, email, version FROM employee";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Emits rows as the subscriber requests them, the driver does not buffer the whole result.
+     */
+    public Flux<EmployeeView> streamAll() {
+        return databaseClient.sql(SELECT_VIEW + " ORDER BY id")
+                .map(EmployeeReactiveRepo::toView)
+                .all();
+    }
+
+    public Mono<EmployeeView> findViewById(long id) {
+        return databaseClient.sql(SELECT_VIEW + " WHERE id = :id")
+                .bind("id", id)
+                .map(EmployeeReactiveRepo::toView)
+                .one();
+    }
+
+    /**
+     * Sum over the stripes of {@code employee_table_version}, see {@link EmployeeTableVersionRepo#sumVersions}.
+     */
+    public Mono<Long> findTableVersion() {
+        // SUM of a BIGINT column is a DECIMAL in MySQL and H2
+        return databaseClient.sql("SELECT COALESCE(SUM(version), 0) AS version FROM employee_table_version")
+                .map(row -> row.get("version", BigDecimal.class).longValue())
+                .one();
+    }
+
+    /**
+     * Keyset page, see {@link EmployeeRepo#findByIdGreaterThanOrderByIdAsc}.
+     */
+    public Flux<EmployeeView> findPageAfter(long afterId, int limit) {
+        return databaseClient.sql(SELECT_VIEW + " WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(EmployeeReactiveRepo::toView)
+                .all();
+    }
+
+    private static EmployeeView toView(Readable row) {
+        return new EmployeeView(row.get("id", Long.class), row.get("first_name", String.class),
+                row.get("last_name", String.class), row.get("email", String.class), row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,62 @@
+package com.training.unittest.service;
+
+import com.training.unittest.model.Employee;
+import com.training.unittest.service.dto.EmployeePage;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.ResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeService} for the reactive deployment mode, with the same semantics
+ * per method. Reads go through R2DBC; writes run the blocking {@link EmployeeService} on a scheduler sized to
+ * the JDBC pool, so validation, email checks, id generation and cache eviction stay in one place.
+ */
+public interface ReactiveEmployeeService {
+
+    Mono<Employee> saveEmployee(Employee employee);
+
+    Mono<List<ResponseDto>> saveEmployees(List<Employee> employees);
+
+    /**
+     * Streams the table ordered by id, rows are read as fast as the subscriber consumes them.
+     */
+    Flux<EmployeeView> getAllEmployees();
+
+    /**
+     * See {@link EmployeeService#getTableVersion()}.
+     */
+    Mono<Long> getTableVersion();
+
+    Mono<EmployeePage> getEmployeesAfter(long afterId, int limit);
+
+    Mono<List<EmployeeView>> searchEmployees(String firstName, String lastName, boolean prefix, int page, int size);
+
+    Mono<List<EmployeeView>> findEmployees(String query, int limit);
+
+    /**
+     * Empty when there is no employee with the given id.
+     */
+    Mono<EmployeeView> getEmployeeById(Long id);
+
+    Mono<Employee> updateEmployee(Employee updatedEmployee);
+
+    /**
+     * See {@link EmployeeService#updateEmployee(Employee, long)}, emits the new version.
+     */
+    Mono<Long> updateEmployee(Employee updatedEmployee, long expectedVersion);
+
+    Mono<Boolean> patchEmployee(Long id, Employee changes);
+
+    /**
+     * See {@link EmployeeService#patchEmployee(Long, Employee, long)}, emits the new version.
+     */
+    Mono<Long> patchEmployee(Long id, Employee changes, long expectedVersion);
+
+    Mono<Boolean> deleteEmployee(Long id);
+
+    Mono<Integer> deleteEmployees(Collection<Long> ids);
+}
@@ -0,0 +1,138 @@
+package com.training.unittest.service.impl;
+
+import com.training.unittest.model.Employee;
+import com.training.unittest.repository.EmployeeReactiveRepo;
+import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.ReactiveEmployeeService;
+import com.training.unittest.service.dto.EmployeePage;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.PageCursor;
+import com.training.unittest.service.dto.ResponseDto;
+import com.training.unittest.service.support.EmployeeCache;
+import com.training.unittest.service.support.EmployeeErrorMetrics;
+import com.training.unittest.service.support.EmployeeWriteBehind;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import static com.training.unittest.service.impl.EmployeeServiceImpl.DEFAULT_PAGE_SIZE;
+import static com.training.unittest.service.impl.EmployeeServiceImpl.MAX_PAGE_SIZE;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private final EmployeeReactiveRepo employeeReactiveRepo;
+    private final EmployeeService employeeService;
+    private final EmployeeCache employeeCache;
+    private final EmployeeErrorMetrics errorMetrics;
+    private final EmployeeWriteBehind writeBehind;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveEmployeeServiceImpl(EmployeeReactiveRepo employeeReactiveRepo, EmployeeService employeeService,
+                                       EmployeeCache employeeCache, EmployeeErrorMetrics errorMetrics,
+                                       EmployeeWriteBehind writeBehind, @Qualifier("jdbcScheduler") Scheduler jdbcScheduler) {
+        this.employeeReactiveRepo = employeeReactiveRepo;
+        this.employeeService = employeeService;
+        this.employeeCache = employeeCache;
+        this.errorMetrics = errorMetrics;
+        this.writeBehind = writeBehind;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        return blocking(() -> employeeService.saveEmployee(employee));
+    }
+
+    @Override
+    public Mono<List<ResponseDto>> saveEmployees(List<Employee> employees) {
+        return blocking(() -> employeeService.saveEmployees(employees));
+    }
+
+    @Override
+    public Flux<EmployeeView> getAllEmployees() {
+        return employeeReactiveRepo.streamAll();
+    }
+
+    @Override
+    public Mono<Long> getTableVersion() {
+        return employeeReactiveRepo.findTableVersion();
+    }
+
+    @Override
+    public Mono<EmployeePage> getEmployeesAfter(long afterId, int limit) {
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        return employeeReactiveRepo.findPageAfter(afterId, pageSize + 1)
+                .collectList()
+                .map(rows -> {
+                    if (rows.size() <= pageSize) {
+                        return new EmployeePage(rows, null);
+                    }
+                    List<EmployeeView> content = rows.subList(0, pageSize);
+                    return new EmployeePage(content, PageCursor.encode(content.get(pageSize - 1).id()));
+                });
+    }
+
+    @Override
+    public Mono<List<EmployeeView>> searchEmployees(String firstName, String lastName, boolean prefix, int page, int size) {
+        return blocking(() -> employeeService.searchEmployees(firstName, lastName, prefix, page, size));
+    }
+
+    @Override
+    public Mono<List<EmployeeView>> findEmployees(String query, int limit) {
+        return blocking(() -> employeeService.findEmployees(query, limit));
+    }
+
+    @Override
+    public Mono<EmployeeView> getEmployeeById(Long id) {
+        // a buffered update first, then the cache, which is only read here: a row loaded asynchronously could be
+        // older than a concurrent eviction
+        return Mono.justOrEmpty(writeBehind.isEnabled() ? writeBehind.pending(id) : Optional.empty())
+                .switchIfEmpty(Mono.defer(() -> Mono.justOrEmpty(employeeCache.getIfPresent(id))))
+                .switchIfEmpty(Mono.defer(() -> employeeReactiveRepo.findViewById(id)))
+                .switchIfEmpty(Mono.fromRunnable(errorMetrics::notFound));
+    }
+
+    @Override
+    public Mono<Employee> updateEmployee(Employee updatedEmployee) {
+        return blocking(() -> employeeService.updateEmployee(updatedEmployee));
+    }
+
+    @Override
+    public Mono<Long> updateEmployee(Employee updatedEmployee, long expectedVersion) {
+        return blocking(() -> employeeService.updateEmployee(updatedEmployee, expectedVersion));
+    }
+
+    @Override
+    public Mono<Boolean> patchEmployee(Long id, Employee changes) {
+        return blocking(() -> employeeService.patchEmployee(id, changes));
+    }
+
+    @Override
+    public Mono<Long> patchEmployee(Long id, Employee changes, long expectedVersion) {
+        return blocking(() -> employeeService.patchEmployee(id, changes, expectedVersion));
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(Long id) {
+        return blocking(() -> employeeService.deleteEmployee(id));
+    }
+
+    @Override
+    public Mono<Integer> deleteEmployees(Collection<Long> ids) {
+        return blocking(() -> employeeService.deleteEmployees(ids));
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
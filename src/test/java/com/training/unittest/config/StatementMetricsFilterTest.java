@@ -0,0 +1,52 @@
+package com.training.unittest.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatementMetricsFilterTest {
+
+    @DisplayName("statements prepared while handling a request are recorded per endpoint")
+    @Test
+    public void givenRequestRunningStatements_whenFilter_thenRecordStatementCountForPattern() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StatementCounter statementCounter = new StatementCounter();
+        StatementMetricsFilter filter = new StatementMetricsFilter(statementCounter, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employee/1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employee/{id}");
+            statementCounter.inspect("select 1");
+            statementCounter.inspect("select 2");
+        });
+
+        // the second request to the endpoint reuses the summary of the first
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employee/2"), new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employee/{id}");
+            statementCounter.inspect("select 3");
+        });
+
+        DistributionSummary summary = meterRegistry.get(StatementMetricsFilter.NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/employee/{id}")
+                .summary();
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.totalAmount()).isEqualTo(3);
+    }
+
+    @DisplayName("statements outside of a request are not counted")
+    @Test
+    public void givenNoRequest_whenInspect_thenNothingIsCounted() {
+        StatementCounter statementCounter = new StatementCounter();
+
+        statementCounter.inspect("select 1");
+
+        assertThat(statementCounter.stop()).isZero();
+    }
+}
@@ -1,37 +1,62 @@
 package com.training.unittest.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.exception.DuplicateEmailException;
+import com.training.unittest.exception.EmployeeBusyException;
+import com.training.unittest.exception.EmployeeUpdateConflictException;
+import com.training.unittest.exception.EmployeeVersionMismatchException;
+import com.training.unittest.exception.InvalidEmployeeException;
 import com.training.unittest.model.Employee;
+import com.training.unittest.service.EmployeeImportService;
 import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.dto.EmployeePage;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.ImportJob;
+import com.training.unittest.service.dto.PageCursor;
+import com.training.unittest.service.dto.ResponseDto;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest
+@EnableConfigurationProperties(EmployeeProperties.class)
 public class EmployeeControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
     @MockBean
     private EmployeeService employeeService;
+    @MockBean
+    private EmployeeImportService employeeImportService;
     @Autowired
     private ObjectMapper mapper;
     private Employee employee;
@@ -67,6 +92,42 @@ public class EmployeeControllerTest {
 
     }
 
+    @DisplayName("createEmployee RestAPI (duplicate email)")
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturnConflict() throws Exception {
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new DuplicateEmailException(employee.getEmail(), null, false));
+
+        ResultActions response = mockMvc.perform(post("/api/employee")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(employee)));
+
+        response.andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code", CoreMatchers.is("CONFLICT")))
+                .andExpect(jsonPath("$.errorCode", CoreMatchers.is("Employee already exists with given email: " + employee.getEmail())))
+                .andExpect(jsonPath("$.response", CoreMatchers.nullValue()));
+    }
+
+    @DisplayName("createEmployees RestAPI")
+    @Test
+    public void givenEmployeeList_whenCreateEmployees_thenReturnResultPerEmployee() throws Exception {
+        given(employeeService.saveEmployees(any())).willReturn(List.of(
+                new ResponseDto(HttpStatus.CREATED, null, employee),
+                new ResponseDto(HttpStatus.CONFLICT, "Employee already exists with given email: " + employee.getEmail(), null)));
+
+        ResultActions response = mockMvc.perform(post("/api/employee/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(List.of(employee, employee))));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$[0].code", CoreMatchers.is("CREATED")))
+                .andExpect(jsonPath("$[0].response.email", CoreMatchers.is(employee.getEmail())))
+                .andExpect(jsonPath("$[1].code", CoreMatchers.is("CONFLICT")));
+    }
+
     @DisplayName("getAllEmployees RestAPI")
     @Test
     public void givenListOfEmployees_whenGetAlEmployees_thenReturnEmployeeList() throws Exception {
@@ -76,7 +137,7 @@ public class EmployeeControllerTest {
                 .lastName("Tahmasebi")
                 .email("niushatt@gmail.com")
                 .build();
-        given(employeeService.getAllEmployees()).willReturn(List.of(employee, niu));
+        given(employeeService.getAllEmployees()).willReturn(List.of(EmployeeView.of(employee), EmployeeView.of(niu)));
 
         ResultActions response = mockMvc.perform(get("/api/employee"));
 
@@ -86,10 +147,73 @@ public class EmployeeControllerTest {
 
     }
 
+    @DisplayName("getAllEmployees RestAPI (unchanged table)")
+    @Test
+    public void givenCurrentListETag_whenGetAllEmployees_thenReturnNotModifiedWithoutReadingTheTable() throws Exception {
+        given(employeeService.getTableVersion()).willReturn(7L);
+
+        ResultActions response = mockMvc.perform(get("/api/employee").header("If-None-Match", "W/\"7\""));
+
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"7\""))
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @DisplayName("getEmployeePage RestAPI")
+    @Test
+    public void givenCursor_whenGetEmployeePage_thenReturnPageAndNextCursor() throws Exception {
+        given(employeeService.getEmployeesAfter(1L, 1))
+                .willReturn(new EmployeePage(List.of(EmployeeView.of(employee)), PageCursor.encode(employee.getId())));
+
+        ResultActions response = mockMvc.perform(get("/api/employee/page")
+                .param("cursor", PageCursor.encode(1L))
+                .param("limit", "1"));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.nextCursor", CoreMatchers.is(PageCursor.encode(employee.getId()))));
+    }
+
+    @DisplayName("getEmployeePage RestAPI (invalid cursor)")
+    @Test
+    public void givenInvalidCursor_whenGetEmployeePage_thenReturnBadRequest() throws Exception {
+        ResultActions response = mockMvc.perform(get("/api/employee/page").param("cursor", "not-a-cursor"));
+
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("exportEmployees RestAPI")
+    @Test
+    public void givenEmployees_whenExportEmployees_thenStreamOneJsonLinePerEmployee() throws Exception {
+        given(employeeService.exportEmployees(any())).willAnswer(invocation -> {
+            Consumer<EmployeeView> consumer = invocation.getArgument(0);
+            consumer.accept(EmployeeView.of(employee));
+            consumer.accept(EmployeeView.of(employee));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/employee/export")).andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        // the export's own timeout, not the application-wide async one
+        assertThat(result.getRequest().getAsyncContext().getTimeout())
+                .isEqualTo(new EmployeeProperties().getExportTimeout().toMillis());
+
+        String line = mapper.writeValueAsString(employee);
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
     @DisplayName("getEmployeeById RestAPI(positive scenario)")
     @Test
     public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject() throws Exception {
-        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(EmployeeView.of(employee)));
 
         ResultActions response = mockMvc.perform(get("/api/employee/{id}", employee.getId()));
 
@@ -100,22 +224,41 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    @DisplayName("getEmployeeById RestAPI (unchanged employee)")
+    @Test
+    public void givenCurrentETag_whenGetEmployeeById_thenReturnNotModified() throws Exception {
+        employee.setVersion(3);
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(EmployeeView.of(employee)));
+
+        mockMvc.perform(get("/api/employee/{id}", employee.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+        ResultActions response = mockMvc.perform(get("/api/employee/{id}", employee.getId()).header("If-None-Match", "\"3\""));
+
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @DisplayName("getEmployeeById RestAPI(negative scenario)")
     @Test
     public void givenEmployeeId_whenGetEmployeeById_then() throws Exception {
-        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(EmployeeView.of(employee)));
 
         ResultActions response = mockMvc.perform(get("/api/employee/{id}", 2));
 
         response.andDo(print())
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code", CoreMatchers.is("NOT_FOUND")))
+                .andExpect(jsonPath("$.errorCode", CoreMatchers.is("Employee not found")));
     }
 
     @DisplayName("updateEmployee RestAPI (positive scenario)")
     @Test
     public void givenUpdatedEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployeeObject() throws Exception {
 
-        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(EmployeeView.of(employee)));
         employee.setFirstName("Mohammad Javad");
         employee.setEmail("m.javad2007@gmail.com");
         given(employeeService.updateEmployee(any(Employee.class))).willAnswer(invocation -> invocation.getArgument(0));
@@ -135,7 +278,7 @@ public class EmployeeControllerTest {
     @Test
     public void givenUpdatedEmployeeObject_whenUpdateEmployee_thenReturnNotFound() throws Exception {
 
-        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(EmployeeView.of(employee)));
         employee.setFirstName("Mohammad Javad");
         employee.setEmail("m.javad2007@gmail.com");
         given(employeeService.updateEmployee(any(Employee.class))).willAnswer(invocation -> invocation.getArgument(0));
@@ -148,15 +291,266 @@ public class EmployeeControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @DisplayName("updateEmployee RestAPI (write-behind buffer full)")
+    @Test
+    public void givenFullWriteBehindBuffer_whenUpdateEmployee_thenReturnServiceUnavailable() throws Exception {
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(EmployeeView.of(employee)));
+        given(employeeService.updateEmployee(any(Employee.class))).willThrow(EmployeeBusyException.INSTANCE);
+
+        ResultActions response = mockMvc.perform(put("/api/employee/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(employee)));
+
+        response.andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @DisplayName("updateEmployee RestAPI (invalid fields)")
+    @Test
+    public void givenInvalidEmail_whenUpdateEmployee_thenReturnBadRequest() throws Exception {
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(EmployeeView.of(employee)));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willThrow(new InvalidEmployeeException("email is not valid: x", false));
+
+        ResultActions response = mockMvc.perform(put("/api/employee/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Mj\",\"lastName\":\"Farzaneh\",\"email\":\"x\"}"));
+
+        response.andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode", CoreMatchers.is("Employee could not be saved: email is not valid: x")));
+    }
+
+    @DisplayName("updateEmployee RestAPI (concurrent writes kept winning)")
+    @Test
+    public void givenContendedEmployee_whenUpdateEmployee_thenReturnConflict() throws Exception {
+        given(employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(EmployeeView.of(employee)));
+        given(employeeService.updateEmployee(any(Employee.class))).willThrow(EmployeeUpdateConflictException.INSTANCE);
+
+        ResultActions response = mockMvc.perform(put("/api/employee/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(employee)));
+
+        response.andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code", CoreMatchers.is("CONFLICT")));
+    }
+
+    @DisplayName("updateEmployee RestAPI (If-Match)")
+    @Test
+    public void givenIfMatch_whenUpdateEmployee_thenConditionalUpdateAndReturnNewETag() throws Exception {
+        given(employeeService.updateEmployee(any(Employee.class), eq(3L))).willReturn(4L);
+
+        ResultActions response = mockMvc.perform(put("/api/employee/{id}", employee.getId())
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(employee)));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.firstName", CoreMatchers.is(employee.getFirstName())));
+        // the version check is part of the update, nothing is read first
+        verify(employeeService, never()).getEmployeeById(any());
+    }
+
+    @DisplayName("updateEmployee RestAPI (stale If-Match)")
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturnPreconditionFailed() throws Exception {
+        given(employeeService.updateEmployee(any(Employee.class), eq(2L))).willThrow(EmployeeVersionMismatchException.INSTANCE);
+
+        ResultActions response = mockMvc.perform(put("/api/employee/{id}", employee.getId())
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(employee)));
+
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @DisplayName("searchEmployees RestAPI")
+    @Test
+    public void givenNamePrefix_whenSearchEmployees_thenReturnMatchingEmployees() throws Exception {
+        given(employeeService.searchEmployees(null, "Farz", true, 0, 50)).willReturn(List.of(EmployeeView.of(employee)));
+
+        ResultActions response = mockMvc.perform(get("/api/employee/search")
+                .param("last", "Farz")
+                .param("prefix", "true"));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$[0].lastName", CoreMatchers.is(employee.getLastName())));
+    }
+
+    @DisplayName("searchEmployees RestAPI (negative scenario)")
+    @Test
+    public void givenBlankLastName_whenSearchEmployees_thenReturnBadRequest() throws Exception {
+        given(employeeService.searchEmployees(null, " ", false, 0, 50)).willThrow(new IllegalArgumentException());
+
+        ResultActions response = mockMvc.perform(get("/api/employee/search").param("last", " "));
+
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("findEmployees RestAPI")
+    @Test
+    public void givenFragment_whenFindEmployees_thenReturnRankedEmployees() throws Exception {
+        given(employeeService.findEmployees("farz", 20)).willReturn(List.of(EmployeeView.of(employee)));
+
+        ResultActions response = mockMvc.perform(get("/api/employee/find").param("q", "farz"));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$[0].email", CoreMatchers.is(employee.getEmail())));
+    }
+
+    @DisplayName("findEmployees RestAPI (negative scenarios)")
+    @Test
+    public void givenShortFragmentOrIndexNotBuilt_whenFindEmployees_thenReturnErrorStatus() throws Exception {
+        given(employeeService.findEmployees("fa", 20)).willThrow(new IllegalArgumentException());
+        given(employeeService.findEmployees("farz", 20)).willThrow(new IllegalStateException());
+
+        mockMvc.perform(get("/api/employee/find").param("q", "fa"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employee/find").param("q", "farz"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @DisplayName("patchEmployee RestAPI (positive scenario)")
+    @Test
+    public void givenEmployeeChanges_whenPatchEmployee_thenReturnNoContent() throws Exception {
+        given(employeeService.patchEmployee(any(Long.class), any(Employee.class))).willReturn(true);
+
+        ResultActions response = mockMvc.perform(patch("/api/employee/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"m.javad2007@gmail.com\"}"));
+
+        response.andDo(print())
+                .andExpect(status().isNoContent());
+    }
+
+    @DisplayName("patchEmployee RestAPI (If-Match)")
+    @Test
+    public void givenIfMatch_whenPatchEmployee_thenReturnNoContentWithNewETag() throws Exception {
+        given(employeeService.patchEmployee(eq(1L), any(Employee.class), eq(3L))).willReturn(4L);
+        // weak tags never match in If-Match, the service gets a version no employee has
+        given(employeeService.patchEmployee(eq(1L), any(Employee.class), eq(EmployeeView.NO_VERSION)))
+                .willThrow(EmployeeVersionMismatchException.INSTANCE);
+
+        mockMvc.perform(patch("/api/employee/{id}", employee.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"m.javad2007@gmail.com\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        mockMvc.perform(patch("/api/employee/{id}", employee.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"m.javad2007@gmail.com\"}"))
+                .andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).patchEmployee(any(Long.class), any(Employee.class));
+    }
+
+    @DisplayName("patchEmployee RestAPI (invalid fields)")
+    @Test
+    public void givenInvalidEmail_whenPatchEmployee_thenReturnBadRequest() throws Exception {
+        given(employeeService.patchEmployee(any(Long.class), any(Employee.class)))
+                .willThrow(new InvalidEmployeeException("email is not valid: x", false));
+
+        ResultActions response = mockMvc.perform(patch("/api/employee/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"x\"}"));
+
+        response.andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", CoreMatchers.is("BAD_REQUEST")));
+    }
+
+    @DisplayName("patchEmployee RestAPI (negative scenario)")
+    @Test
+    public void givenUnknownEmployeeId_whenPatchEmployee_thenReturnNotFound() throws Exception {
+        given(employeeService.patchEmployee(any(Long.class), any(Employee.class))).willReturn(false);
+
+        ResultActions response = mockMvc.perform(patch("/api/employee/{id}", 2)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"m.javad2007@gmail.com\"}"));
+
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
     @DisplayName("deleteEmployee RestAPI")
     @Test
     public void givenEmployeeId_whenDeleteEmployee_thenReturnOK() throws Exception {
 
-        willDoNothing().given(employeeService).deleteEmployee(employee.getId());
+        given(employeeService.deleteEmployee(employee.getId())).willReturn(true);
 
         ResultActions response = mockMvc.perform(delete("/api/employee/{id}", 1));
 
         response.andDo(print())
                 .andExpect(status().isOk());
     }
+
+    @DisplayName("deleteEmployee RestAPI (negative scenario)")
+    @Test
+    public void givenUnknownEmployeeId_whenDeleteEmployee_thenReturnNotFound() throws Exception {
+        given(employeeService.deleteEmployee(2L)).willReturn(false);
+
+        ResultActions response = mockMvc.perform(delete("/api/employee/{id}", 2));
+
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("deleteEmployees RestAPI")
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnOK() throws Exception {
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(3);
+
+        ResultActions response = mockMvc.perform(delete("/api/employee").param("ids", "1,2,3"));
+
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().string("3 users successfully deleted."));
+    }
+
+    @DisplayName("importEmployees RestAPI")
+    @Test
+    public void givenCsvFile_whenImportEmployees_thenReturnAcceptedJob() throws Exception {
+        given(employeeImportService.startImport("employees.csv")).willReturn(new ImportJob("42", "employees.csv", 100));
+
+        ResultActions response = mockMvc.perform(post("/api/employee/import").param("file", "employees.csv"));
+
+        response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/employee/import/42"))
+                .andExpect(jsonPath("$.status", CoreMatchers.is("RUNNING")))
+                .andExpect(jsonPath("$.bytesTotal", CoreMatchers.is(100)));
+    }
+
+    @DisplayName("importEmployees RestAPI (negative scenario)")
+    @Test
+    public void givenFileOutsideImportDirectory_whenImportEmployees_thenReturnBadRequest() throws Exception {
+        given(employeeImportService.startImport("../secret.csv")).willThrow(new IllegalArgumentException());
+
+        ResultActions response = mockMvc.perform(post("/api/employee/import").param("file", "../secret.csv"));
+
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("getImport RestAPI (negative scenario)")
+    @Test
+    public void givenUnknownImportId_whenGetImport_thenReturnNotFound() throws Exception {
+        given(employeeImportService.getImport("42")).willReturn(Optional.empty());
+
+        ResultActions response = mockMvc.perform(get("/api/employee/import/{id}", "42"));
+
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,123 @@
+package com.training.unittest.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CalculatorTest {
+
+    private final List<String> results = new ArrayList<>();
+    private final Calculator calculator = new Calculator(results::add);
+
+    @DisplayName("add method (single pairs)")
+    @Test
+    public void givenPairs_whenAdd_thenReturnAndReportSums() {
+        assertThat(calculator.add(4, 5)).isEqualTo(9);
+        assertThat(calculator.add(4.5, 0.5)).isEqualTo(5.0);
+        assertThat(calculator.add("76", "31")).isEqualTo("107");
+
+        assertThat(results).containsExactly("9", "5.0", "107");
+    }
+
+    @DisplayName("evaluate method")
+    @Test
+    public void givenExpression_whenEvaluate_thenReturnAndReportResult() {
+        assertThat(calculator.evaluate("(a + b) * 2", 4, 5)).isEqualTo(18.0);
+        assertThat(calculator.evaluateAll("(a + b) * 2", new double[][]{{1, 2}, {3, 4}})).containsExactly(6.0, 14.0);
+
+        assertThat(results).containsExactly("18.0");
+    }
+
+    @DisplayName("add method (int arrays)")
+    @Test
+    public void givenIntArrays_whenAdd_thenWriteSumsToDestination() {
+        int[] a = {1, -2, Integer.MAX_VALUE, 0, 7};
+        int[] b = {3, 2, Integer.MIN_VALUE, 0, -8};
+        int[] dest = new int[5];
+
+        calculator.add(a, b, dest);
+        calculator.addInPlace(a, b);
+
+        assertThat(dest).containsExactly(4, 0, -1, 0, -1);
+        assertThat(a).containsExactly(dest);
+        assertThat(results).isEmpty();
+    }
+
+    @DisplayName("add method (int overflow)")
+    @Test
+    public void givenOverflowingElement_whenAddIntArrays_thenThrowsException() {
+        int[] a = new int[100];
+        int[] b = new int[100];
+        a[63] = Integer.MAX_VALUE;
+        b[63] = 1;
+
+        assertThatThrownBy(() -> calculator.add(a, b, new int[100])).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> calculator.add(new int[]{Integer.MIN_VALUE}, new int[]{-1}, new int[1]))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @DisplayName("add method (long and double arrays)")
+    @Test
+    public void givenLongAndDoubleArrays_whenAdd_thenWriteSums() {
+        long[] longs = {Long.MAX_VALUE - 1, -5};
+        double[] doubles = {0.5, Double.MAX_VALUE};
+
+        calculator.addInPlace(longs, new long[]{1, 5});
+        calculator.addInPlace(doubles, new double[]{0.25, Double.MAX_VALUE});
+
+        assertThat(longs).containsExactly(Long.MAX_VALUE, 0);
+        assertThat(doubles).containsExactly(0.75, Double.POSITIVE_INFINITY);
+        assertThatThrownBy(() -> calculator.addInPlace(longs, new long[]{1, 0}))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @DisplayName("add method (arrays of different length)")
+    @Test
+    public void givenArraysOfDifferentLength_whenAdd_thenThrowsException() {
+        assertThatThrownBy(() -> calculator.add(new double[2], new double[2], new double[1]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> calculator.addInPlace(new int[2], new int[3]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("sum method")
+    @Test
+    public void givenArrays_whenSum_thenReturnAndReportSums() {
+        int[] ints = new int[1000];
+        Arrays.fill(ints, Integer.MAX_VALUE);
+
+        assertThat(calculator.sum(ints)).isEqualTo(1000L * Integer.MAX_VALUE);
+        assertThat(calculator.sum(new long[]{Long.MAX_VALUE, -1, 1})).isEqualTo(Long.MAX_VALUE);
+        assertThat(calculator.sum(new double[]{0.5, 0.25})).isEqualTo(0.75);
+        assertThat(results).containsExactly(String.valueOf(1000L * Integer.MAX_VALUE), String.valueOf(Long.MAX_VALUE), "0.75");
+    }
+
+    @DisplayName("sum method (long overflow)")
+    @Test
+    public void givenOverflowingSum_whenSumLongs_thenThrowsException() {
+        assertThatThrownBy(() -> calculator.sum(new long[]{Long.MAX_VALUE, 1, -1}))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> calculator.sum(new long[]{Long.MIN_VALUE, -1}))
+                .isInstanceOf(ArithmeticException.class);
+        assertThat(results).isEmpty();
+    }
+
+    @DisplayName("sum method (file)")
+    @Test
+    public void givenNumberFile_whenSum_thenReturnSummaryAndReportSum(@TempDir Path directory) throws IOException {
+        Path file = Files.writeString(directory.resolve("numbers.txt"), "76\n-31\n\n5\n");
+
+        assertThat(calculator.sum(file)).isEqualTo(new NumericSummary(3, 50, -31, 76));
+        assertThat(results).containsExactly("50");
+    }
+}
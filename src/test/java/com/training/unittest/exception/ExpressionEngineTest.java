@@ -0,0 +1,85 @@
+package com.training.unittest.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExpressionEngineTest {
+
+    private final ExpressionEngine engine = new ExpressionEngine(2, ForkJoinPool.commonPool());
+
+    @DisplayName("compile method")
+    @Test
+    public void givenExpression_whenCompile_thenEvaluateWithPrecedence() {
+        Expression expression = engine.compile("(price - discount) * quantity / 2 + -price");
+
+        assertThat(expression.variables()).containsExactly("price", "discount", "quantity");
+        assertThat(expression.evaluate(10, 4, 3)).isEqualTo(-1.0);
+        assertThat(expression.evaluate(Map.of("price", 2, "discount", 0.5, "quantity", 4))).isEqualTo(1.0);
+        assertThat(engine.evaluate("1 + 2 * 3 - 8 / 4 / 2")).isEqualTo(6.0);
+        assertThat(engine.evaluate("-(-.5) * +2")).isEqualTo(1.0);
+        assertThat(engine.evaluate("x * x - x", 3)).isEqualTo(6.0);
+    }
+
+    @DisplayName("compile method (cache)")
+    @Test
+    public void givenSameText_whenCompile_thenReturnCachedExpression() {
+        Expression first = engine.compile("a + b");
+
+        assertThat(engine.compile("a + b")).isSameAs(first);
+        assertThatThrownBy(() -> engine.compile("a +")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(engine.cacheSize()).isEqualTo(1);
+    }
+
+    @DisplayName("compile method (invalid expressions)")
+    @Test
+    public void givenInvalidExpression_whenCompile_thenThrowsException() {
+        assertThatThrownBy(() -> engine.compile("(1 + 2")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("position 6");
+        assertThatThrownBy(() -> engine.compile("1 + 2)")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.compile("2 ^ 3")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.compile("1..2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.compile("")).isInstanceOf(IllegalArgumentException.class);
+        // names and numbers are ASCII only
+        assertThatThrownBy(() -> engine.compile("\u00e9 + 1")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unexpected");
+        assertThatThrownBy(() -> engine.compile("\u0661 + 1")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unexpected");
+        assertThatThrownBy(() -> engine.compile("(".repeat(1000) + "1" + ")".repeat(1000)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("evaluate method (unbound variables)")
+    @Test
+    public void givenMissingValues_whenEvaluate_thenThrowsException() {
+        Expression expression = engine.compile("a / b");
+
+        assertThatThrownBy(() -> expression.evaluate(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> expression.evaluate(Map.of("a", 1))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(expression.evaluate(1, 0)).isEqualTo(Double.POSITIVE_INFINITY);
+    }
+
+    @DisplayName("evaluateAll method")
+    @Test
+    public void givenManyBindings_whenEvaluateAll_thenReturnResultsInOrder() {
+        int rows = ExpressionEngine.SEQUENTIAL_THRESHOLD * 5 + 3;
+        double[][] bindings = new double[rows][];
+        for (int i = 0; i < rows; i++) {
+            bindings[i] = new double[]{i, 2};
+        }
+
+        double[] results = engine.evaluateAll("x * y + 1", bindings);
+
+        assertThat(results).hasSize(rows);
+        for (int i = 0; i < rows; i++) {
+            assertThat(results[i]).isEqualTo(i * 2 + 1);
+        }
+        assertThatThrownBy(() -> engine.evaluateAll("x * y", new double[][]{{1, 2}, {1}}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,91 @@
+package com.training.unittest.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NumericFileAggregatorTest {
+
+    @TempDir
+    private Path directory;
+    // small chunks, so every test file is split across several tasks
+    private final NumericFileAggregator aggregator = new NumericFileAggregator(ForkJoinPool.commonPool(), 16);
+
+    private Path file(String content) throws IOException {
+        return Files.writeString(directory.resolve("numbers.txt"), content);
+    }
+
+    @DisplayName("aggregate method")
+    @Test
+    public void givenNumbers_whenAggregate_thenReturnCountSumMinMax() throws IOException {
+        Path file = file("12\n-7\r\n+30\n\n\r\n1000000000000\n0\n" + Long.MIN_VALUE + "\n" + Long.MAX_VALUE);
+
+        NumericSummary summary = aggregator.aggregate(file);
+
+        assertThat(summary).isEqualTo(new NumericSummary(7, 1000000000034L, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @DisplayName("aggregate method (many chunks)")
+    @Test
+    public void givenLargeFile_whenAggregate_thenMatchSequentialSum() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder content = new StringBuilder();
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L);
+            content.append(value).append('\n');
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        NumericSummary summary = new NumericFileAggregator(ForkJoinPool.commonPool(), 4096).aggregate(file(content.toString()));
+
+        assertThat(summary).isEqualTo(new NumericSummary(10_000, sum, min, max));
+    }
+
+    @DisplayName("aggregate method (empty file)")
+    @Test
+    public void givenEmptyFile_whenAggregate_thenReturnZeroCount() throws IOException {
+        assertThat(aggregator.aggregate(file(""))).isEqualTo(new NumericSummary(0, 0, 0, 0));
+    }
+
+    @DisplayName("aggregate method (intermediate overflow)")
+    @Test
+    public void givenPartialSumsOutOfRange_whenAggregate_thenReturnExactTotal() throws IOException {
+        Path file = file(Long.MAX_VALUE + "\n" + Long.MAX_VALUE + "\n" + Long.MIN_VALUE + "\n" + Long.MIN_VALUE + "\n5\n");
+
+        assertThat(aggregator.aggregate(file).sum()).isEqualTo(3);
+    }
+
+    @DisplayName("aggregate method (overflow)")
+    @Test
+    public void givenTotalOutOfRange_whenAggregate_thenThrowsException() throws IOException {
+        Path sumOverflow = file(Long.MAX_VALUE + "\n1\n");
+        assertThatThrownBy(() -> aggregator.aggregate(sumOverflow)).isInstanceOf(ArithmeticException.class);
+
+        Path valueOverflow = file("1\n9223372036854775808\n");
+        assertThatThrownBy(() -> aggregator.aggregate(valueOverflow)).isInstanceOf(ArithmeticException.class)
+                .hasMessageContaining("byte 2");
+    }
+
+    @DisplayName("aggregate method (invalid lines)")
+    @Test
+    public void givenInvalidLine_whenAggregate_thenThrowsException() throws IOException {
+        for (String content : new String[]{"1\n2x\n", "1\n-\n", "1\n 2\n", "1\n2-3\n", "1\n2\r3\n", "1.5\n"}) {
+            Path file = file(content);
+            assertThatThrownBy(() -> aggregator.aggregate(file)).as(content).isInstanceOf(NumberFormatException.class);
+        }
+    }
+}
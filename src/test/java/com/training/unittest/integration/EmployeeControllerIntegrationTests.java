@@ -2,8 +2,13 @@ package com.training.unittest.integration;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.unittest.config.StatementCounter;
 import com.training.unittest.model.Employee;
+import com.training.unittest.model.EmployeeChange;
 import com.training.unittest.repository.EmployeeRepo;
+import com.training.unittest.service.EmployeeChangeSubscriber;
+import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.dto.EmployeeChangeEvent;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,12 +16,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,8 +42,23 @@ public class EmployeeControllerIntegrationTests {
     private EmployeeRepo employeeRepo;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private StatementCounter statementCounter;
+    @Autowired
+    private EmployeeService employeeService;
     private Employee employee;
 
+    private static final BlockingQueue<EmployeeChangeEvent> CHANGES = new LinkedBlockingQueue<>();
+
+    @TestConfiguration
+    static class ChangeSubscriberConfig {
+
+        @Bean
+        EmployeeChangeSubscriber recordingSubscriber() {
+            return CHANGES::addAll;
+        }
+    }
+
     @BeforeEach
     void setup() {
         employeeRepo.deleteAll();
@@ -59,6 +87,63 @@ public class EmployeeControllerIntegrationTests {
                 .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    @DisplayName("second-level cache serves repeated lookups and is invalidated by repository writes")
+    @Test
+    public void givenSavedEmployee_whenLookedUpRepeatedly_thenServedFromSecondLevelCache() {
+        Employee saved = employeeRepo.save(employee);
+        employeeRepo.findByEmail(employee.getEmail());
+
+        statementCounter.start();
+        assertThat(employeeRepo.findById(saved.getId())).isPresent();
+        assertThat(employeeRepo.findByEmail(employee.getEmail())).isPresent();
+        assertThat(statementCounter.stop()).isZero();
+
+        employeeService.patchEmployee(saved.getId(), Employee.builder().firstName("Niusha").build());
+
+        statementCounter.start();
+        assertThat(employeeRepo.findById(saved.getId())).get().extracting(Employee::getFirstName).isEqualTo("Niusha");
+        assertThat(employeeRepo.findByEmail(employee.getEmail())).isPresent();
+        assertThat(statementCounter.stop()).isEqualTo(2);
+    }
+
+    @DisplayName("service writes reach the change subscribers through the outbox")
+    @Test
+    public void givenServiceWrites_whenRelayed_thenSubscribersReceiveChanges() throws InterruptedException {
+        CHANGES.clear();
+        Employee saved = employeeService.saveEmployee(employee);
+        employeeService.patchEmployee(saved.getId(), Employee.builder().firstName("Niusha").build());
+        employeeService.updateEmployee(Employee.builder().id(saved.getId())
+                .firstName("Niu").lastName(employee.getLastName()).email(employee.getEmail()).build());
+        employeeService.deleteEmployee(saved.getId());
+
+        EmployeeChangeEvent created = nextChangeOf(saved.getId());
+        EmployeeChangeEvent updated = nextChangeOf(saved.getId());
+        EmployeeChangeEvent replaced = nextChangeOf(saved.getId());
+        EmployeeChangeEvent deleted = nextChangeOf(saved.getId());
+        assertThat(created.type()).isEqualTo(EmployeeChange.Type.CREATED);
+        assertThat(created.email()).isEqualTo(employee.getEmail());
+        assertThat(updated.type()).isEqualTo(EmployeeChange.Type.UPDATED);
+        assertThat(updated.firstName()).isEqualTo("Niusha");
+        assertThat(updated.lastName()).isEqualTo(employee.getLastName());
+        // every change carries the version it produced, so consumers can drop stale replays
+        assertThat(created.version()).isEqualTo(0L);
+        assertThat(updated.version()).isEqualTo(1L);
+        assertThat(replaced.firstName()).isEqualTo("Niu");
+        assertThat(replaced.version()).isEqualTo(2L);
+        assertThat(deleted.type()).isEqualTo(EmployeeChange.Type.DELETED);
+        assertThat(deleted.version()).isNull();
+    }
+
+    private static EmployeeChangeEvent nextChangeOf(long employeeId) throws InterruptedException {
+        while (true) {
+            EmployeeChangeEvent event = CHANGES.poll(10, TimeUnit.SECONDS);
+            assertThat(event).as("change of employee " + employeeId).isNotNull();
+            if (event.employeeId() == employeeId) {
+                return event;
+            }
+        }
+    }
+
     @DisplayName("getAllEmployees integration")
     @Test
     public void givenListOfEmployees_whenGetAllEmployees_thenReturnListOfEmployees() throws Exception {
@@ -96,6 +181,74 @@ public class EmployeeControllerIntegrationTests {
 
     }
 
+    @DisplayName("conditional GETs answer 304 until the employee or the table changes")
+    @Test
+    public void givenETags_whenEmployeeUpdated_thenOnlyChangedResourcesAreSentAgain() throws Exception {
+        Employee saved = employeeService.saveEmployee(employee);
+        String employeeETag = mockMvc.perform(get("/api/employee/{id}", saved.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String listETag = mockMvc.perform(get("/api/employee"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/employee/{id}", saved.getId()).header("If-None-Match", employeeETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/employee").header("If-None-Match", listETag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/employee/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder()
+                                .firstName("Niusha").lastName("Tahmasebi").email("niushatt@gmail.com").build())))
+                .andExpect(status().isOk());
+
+        assertThat(employeeETag).isEqualTo("\"0\"");
+        mockMvc.perform(get("/api/employee/{id}", saved.getId()).header("If-None-Match", employeeETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.firstName", CoreMatchers.is("Niusha")));
+        mockMvc.perform(get("/api/employee").header("If-None-Match", listETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", CoreMatchers.not(listETag)));
+    }
+
+    @DisplayName("If-Match writes apply only on the current version and hand out the next one")
+    @Test
+    public void givenIfMatch_whenEmployeeChangedMeanwhile_thenPreconditionFailed() throws Exception {
+        Employee saved = employeeService.saveEmployee(employee);
+        String eTag = mockMvc.perform(get("/api/employee/{id}", saved.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String next = mockMvc.perform(patch("/api/employee/{id}", saved.getId())
+                        .header("If-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Niusha\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andReturn().getResponse().getHeader("ETag");
+        // a second writer still holding the first ETag
+        mockMvc.perform(put("/api/employee/{id}", saved.getId())
+                        .header("If-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/employee/{id}", saved.getId())
+                        .header("If-Match", next)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+        mockMvc.perform(put("/api/employee/{id}", saved.getId() + 1_000)
+                        .header("If-Match", next)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/employee/{id}", saved.getId()))
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.firstName", CoreMatchers.is(employee.getFirstName())));
+    }
+
     @DisplayName("getEmployeeById integration(negative scenario)")
     @Test
     public void givenEmployeeId_whenGetEmployeeById_thenReturnNotFound() throws Exception {
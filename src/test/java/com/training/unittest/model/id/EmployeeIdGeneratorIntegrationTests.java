@@ -0,0 +1,38 @@
+package com.training.unittest.model.id;
+
+import com.training.unittest.model.Employee;
+import com.training.unittest.repository.EmployeeRepo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
+
+// its own context, the generator seeds its segment only before the first id
+@DataJpaTest(properties = "spring.jpa.properties.employee.id.block-size=10")
+public class EmployeeIdGeneratorIntegrationTests {
+
+    @Autowired
+    private EmployeeRepo employeeRepo;
+
+    @DisplayName("pooled ids continue after the rows of a table that used AUTO_INCREMENT before")
+    @Test
+    @Sql(statements = "insert into employee (id, first_name, last_name, email, version) " +
+            "values (1000, 'Mj', 'Farzaneh', 'mjfarzaneh7@gmail.com', 0)", config = @SqlConfig(transactionMode = ISOLATED))
+    @Sql(statements = "delete from employee where id = 1000", config = @SqlConfig(transactionMode = ISOLATED),
+            executionPhase = AFTER_TEST_METHOD)
+    public void givenExistingIds_whenFirstSave_thenIdsStartAfterThem() {
+        Employee niu = employeeRepo.save(Employee.builder()
+                .firstName("Niusha").lastName("Tahmasebi").email("niushatt@gmail.com").build());
+        Employee ali = employeeRepo.save(Employee.builder()
+                .firstName("Ali").lastName("Farzaneh").email("ali@gmail.com").build());
+
+        assertThat(niu.getId()).isEqualTo(1001L);
+        assertThat(ali.getId()).isEqualTo(1002L);
+    }
+}
@@ -0,0 +1,61 @@
+package com.training.unittest.model.id;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SnowflakeIdGeneratorTest {
+
+    @DisplayName("ids are increasing and unique within one millisecond")
+    @Test
+    public void givenFrozenClock_whenNextId_thenIdsKeepIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> SnowflakeIdGenerator.EPOCH + 1_000);
+
+        long previous = generator.nextId();
+        Set<Long> ids = new HashSet<>();
+        ids.add(previous);
+        // more than one millisecond worth of sequence numbers
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            ids.add(id);
+            previous = id;
+        }
+
+        assertThat(ids).hasSize(10_001);
+    }
+
+    @DisplayName("clock moving backwards does not produce duplicates")
+    @Test
+    public void givenClockMovingBackwards_whenNextId_thenIdsKeepIncreasing() {
+        AtomicLong now = new AtomicLong(SnowflakeIdGenerator.EPOCH + 5_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, now::get);
+
+        long before = generator.nextId();
+        now.addAndGet(-2_000);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @DisplayName("different nodes never produce the same id")
+    @Test
+    public void givenTwoNodes_whenNextIdAtSameTime_thenIdsDiffer() {
+        SnowflakeIdGenerator node1 = new SnowflakeIdGenerator(1, () -> SnowflakeIdGenerator.EPOCH + 1_000);
+        SnowflakeIdGenerator node2 = new SnowflakeIdGenerator(2, () -> SnowflakeIdGenerator.EPOCH + 1_000);
+
+        assertThat(node1.nextId()).isNotEqualTo(node2.nextId());
+    }
+
+    @Test
+    public void givenNodeIdOutOfRange_whenCreate_thenThrowsException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+}
@@ -1,13 +1,18 @@
 package com.training.unittest.repository;
 
 import com.training.unittest.model.Employee;
+import com.training.unittest.service.dto.EmployeeView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -76,6 +81,28 @@ public class EmployeeRepoTests {
         assertThat(employeeList.size()).isEqualTo(2);
     }
 
+    @DisplayName("JUnit test for keyset page operation")
+    @Test
+    public void givenEmployeeList_whenFindByIdGreaterThan_thenReturnNextRowsInIdOrder() {
+        //given
+        Employee niu =
+                Employee.builder()
+                        .firstName("Niusha")
+                        .lastName("Tahmasebi")
+                        .email("niushatt@gmail.com")
+                        .build();
+        employeeRepo.save(mj);
+        employeeRepo.save(niu);
+
+        //when
+        List<EmployeeView> firstPage = employeeRepo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1));
+        List<EmployeeView> secondPage = employeeRepo.findByIdGreaterThanOrderByIdAsc(firstPage.get(0).id(), Limit.of(1));
+
+        //then
+        assertThat(firstPage).extracting(EmployeeView::email).containsExactly(mj.getEmail());
+        assertThat(secondPage).extracting(EmployeeView::email).containsExactly(niu.getEmail());
+    }
+
     @DisplayName("JUnit test for get employee by ID operation")
     @Test
     public void givenEmployeeObject_whenFindById_thenReturnEmployeeById() {
@@ -91,6 +118,19 @@ public class EmployeeRepoTests {
 
     }
 
+    @DisplayName("JUnit test for get employee view by ID operation")
+    @Test
+    public void givenEmployeeObject_whenFindViewById_thenReturnProjection() {
+        //given
+        employeeRepo.save(mj);
+
+        //when
+        Optional<EmployeeView> view = employeeRepo.findViewById(mj.getId());
+
+        //then
+        assertThat(view).contains(EmployeeView.of(mj));
+    }
+
     @DisplayName("JUnit test for get employee by email operation")
     @Test
     public void givenEmployeeObject_whenFindByEmail_thenReturnEmployeeById() {
@@ -178,4 +218,35 @@ public class EmployeeRepoTests {
         assertThat(findMj).isNotNull();
     }
 
+    @DisplayName("JUnit test for name prefix search operation")
+    @Test
+    public void givenEmployeeList_whenFindByLastNameStartingWith_thenReturnOnlyPrefixMatchesInNameOrder() {
+        //given
+        Employee sara = Employee.builder().firstName("Sara").lastName("Farzaneh").email("sara@gmail.com").build();
+        Employee underscore = Employee.builder().firstName("Ali").lastName("Fa_x").email("ali@gmail.com").build();
+        employeeRepo.saveAll(List.of(sara, mj, underscore));
+
+        //when
+        List<EmployeeView> farz = employeeRepo.findByLastNameStartingWith("Farz",
+                PageRequest.of(0, 10, Sort.by("lastName", "firstName", "id")));
+        List<EmployeeView> wildcard = employeeRepo.findByLastNameStartingWith("F_r",
+                PageRequest.of(0, 10, Sort.by("lastName", "firstName", "id")));
+
+        //then
+        assertThat(farz).extracting(EmployeeView::firstName).containsExactly("Mj", "Sara");
+        assertThat(wildcard).isEmpty();
+    }
+
+    @DisplayName("JUnit test for existing ids operation")
+    @Test
+    public void givenSavedAndUnknownIds_whenFindExistingIdsForUpdate_thenReturnOnlySavedIds() {
+        //given
+        Employee savedMj = employeeRepo.save(mj);
+
+        //when
+        List<Long> existing = employeeRepo.findExistingIdsForUpdate(List.of(savedMj.getId(), savedMj.getId() + 1000));
+
+        //then
+        assertThat(existing).containsExactly(savedMj.getId());
+    }
 }
@@ -0,0 +1,154 @@
+package com.training.unittest.service;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.model.Employee;
+import com.training.unittest.service.dto.ImportJob;
+import com.training.unittest.service.dto.ResponseDto;
+import com.training.unittest.service.impl.EmployeeImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeImportServiceTest {
+
+    @Mock
+    private EmployeeService employeeService;
+    @TempDir
+    private Path directory;
+    private final EmployeeProperties properties = new EmployeeProperties();
+    private EmployeeImportServiceImpl importService;
+    // stands in for the table: saveEmployees answers from it like the real service
+    private final Set<String> storedEmails = new HashSet<>();
+    private final List<Employee> saved = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        properties.getImports().setDirectory(directory);
+        properties.getImports().setParallelism(2);
+        properties.setBatchSize(2);
+        // runs the import on the calling thread
+        importService = new EmployeeImportServiceImpl(employeeService, properties, Runnable::run);
+    }
+
+    private void givenSaveEmployeesStoresNewEmails() {
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            List<ResponseDto> results = new ArrayList<>();
+            for (Employee employee : employees) {
+                if (storedEmails.add(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                    saved.add(employee);
+                    results.add(new ResponseDto(HttpStatus.CREATED, null, employee));
+                } else {
+                    results.add(new ResponseDto(HttpStatus.CONFLICT, "Employee already exists with given email: " + employee.getEmail(), null));
+                }
+            }
+            return results;
+        });
+    }
+
+    @DisplayName("startImport method")
+    @Test
+    public void givenCsvFile_whenStartImport_thenImportValidRowsAndRejectTheOthers() throws IOException {
+        givenSaveEmployeesStoresNewEmails();
+        storedEmails.add("taken@gmail.com");
+        Files.writeString(directory.resolve("employees.csv"), """
+                firstName,lastName,email
+                Mj,Farzaneh,mjfarzaneh7@gmail.com
+                "Tahmasebi, Niusha",Tahmasebi,niushatt@gmail.com
+
+                Only,Two
+                Bad,Email,not-an-email
+                Taken,Already,taken@gmail.com
+                Same,Twice,MJFARZANEH7@gmail.com\r
+                Last,Row,last@gmail.com""");
+
+        ImportJob job = importService.startImport("employees.csv");
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(7);
+        assertThat(job.getImported()).isEqualTo(3);
+        assertThat(job.getRejected()).isEqualTo(4);
+        assertThat(job.getBytesRead()).isEqualTo(job.getBytesTotal());
+        assertThat(importService.getImport(job.getId())).containsSame(job);
+        assertThat(saved).extracting(Employee::getFirstName)
+                .containsExactly("Mj", "Tahmasebi, Niusha", "Last");
+        assertThat(Files.readAllLines(Path.of(job.getErrorFile()))).containsExactly(
+                "line,reason,record",
+                "5,\"expected 3 fields (firstName,lastName,email) but found 2\",\"Only,Two\"",
+                "6,email is not valid: not-an-email,\"Bad,Email,not-an-email\"",
+                "7,Employee already exists with given email: taken@gmail.com,\"Taken,Already,taken@gmail.com\"",
+                "8,Employee already exists with given email: MJFARZANEH7@gmail.com,\"Same,Twice,MJFARZANEH7@gmail.com\"");
+    }
+
+    @DisplayName("startImport method (file spanning many chunks)")
+    @Test
+    public void givenChunksSmallerThanFile_whenStartImport_thenImportEveryRowOnce() throws IOException {
+        givenSaveEmployeesStoresNewEmails();
+        properties.getImports().setChunkSize(DataSize.ofBytes(64));
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            csv.append("First").append(i).append(",Last").append(i).append(",user").append(i).append("@gmail.com\n");
+        }
+        Files.writeString(directory.resolve("employees.csv"), csv);
+
+        ImportJob job = importService.startImport("employees.csv");
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getImported()).isEqualTo(500);
+        assertThat(job.getRejected()).isZero();
+        assertThat(saved).extracting(Employee::getEmail)
+                .startsWith("user0@gmail.com", "user1@gmail.com")
+                .endsWith("user499@gmail.com")
+                .doesNotHaveDuplicates();
+    }
+
+    @DisplayName("startImport method (line longer than a chunk)")
+    @Test
+    public void givenLineLongerThanChunk_whenStartImport_thenFailJob() throws IOException {
+        properties.getImports().setChunkSize(DataSize.ofBytes(16));
+        Files.writeString(directory.resolve("employees.csv"), "Mj,Farzaneh,mjfarzaneh7@gmail.com\nLast,Row,last@gmail.com\n");
+
+        ImportJob job = importService.startImport("employees.csv");
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+        assertThat(job.getFailure()).contains("longer than the chunk size");
+        verify(employeeService, never()).saveEmployees(anyList());
+    }
+
+    @DisplayName("startImport method (file outside the import directory)")
+    @Test
+    public void givenPathOutsideImportDirectory_whenStartImport_thenThrowsException() throws IOException {
+        Path outside = Files.writeString(directory.resolveSibling(directory.getFileName() + "-outside.csv"), "a,b,c@d.com\n");
+        try {
+            assertThatThrownBy(() -> importService.startImport("../" + outside.getFileName()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> importService.startImport("missing.csv"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            Files.delete(outside);
+        }
+    }
+}
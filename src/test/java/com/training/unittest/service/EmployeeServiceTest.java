@@ -1,9 +1,29 @@
 package com.training.unittest.service;
 
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.exception.DuplicateEmailException;
 import com.training.unittest.exception.EmployeeExceptions;
+import com.training.unittest.exception.EmployeeNotFoundException;
+import com.training.unittest.exception.EmployeeUpdateConflictException;
+import com.training.unittest.exception.EmployeeVersionMismatchException;
+import com.training.unittest.exception.InvalidEmployeeException;
 import com.training.unittest.model.Employee;
+import com.training.unittest.model.EmployeeChange;
 import com.training.unittest.repository.EmployeeRepo;
+import com.training.unittest.service.dto.EmployeePage;
+import com.training.unittest.service.dto.EmployeeView;
+import com.training.unittest.service.dto.PageCursor;
+import com.training.unittest.service.dto.ResponseDto;
 import com.training.unittest.service.impl.EmployeeServiceImpl;
+import com.training.unittest.service.support.EmailFilter;
+import com.training.unittest.service.support.EmployeeCache;
+import com.training.unittest.service.support.EmployeeErrorMetrics;
+import com.training.unittest.service.support.EmployeeOutbox;
+import com.training.unittest.service.support.EmployeeSearchIndex;
+import com.training.unittest.service.support.EmployeeWriteBehind;
+import com.training.unittest.service.support.StripedLocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,22 +31,56 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTest {
     @Mock
     private EmployeeRepo employeeRepo;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private EmployeeProperties properties = new EmployeeProperties();
+    @Mock
+    private EmailFilter emailFilter;
+    @Spy
+    private StripedLocks emailLocks = new StripedLocks(4);
+    @Spy
+    private EmployeeCache employeeCache = new EmployeeCache(new EmployeeProperties(), new SimpleMeterRegistry());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private EmployeeErrorMetrics errorMetrics = new EmployeeErrorMetrics(meterRegistry);
+    @Mock
+    private EmployeeSearchIndex searchIndex;
+    @Mock
+    private EmployeeOutbox outbox;
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    @Mock
+    private EmployeeWriteBehind writeBehind;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
     private Employee employee;
@@ -43,11 +97,23 @@ public class EmployeeServiceTest {
                 .build();
     }
 
+    @DisplayName("saveEmployee method locks on the lower-cased email, like the column compares it")
+    @Test
+    public void givenMixedCaseEmail_whenSaveEmployee_thenLockOnLowerCasedEmail() {
+        Employee mixedCase = Employee.builder().id(1L).firstName("Mj").lastName("Farzaneh").email("MjFarzaneh7@Gmail.com").build();
+        given(employeeRepo.save(mixedCase)).willReturn(mixedCase);
+
+        employeeService.saveEmployee(mixedCase);
+
+        verify(emailLocks).get("mjfarzaneh7@gmail.com");
+    }
+
     @DisplayName("saveEmployee method")
     @Test
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
         //given
-        //these two lines are the stubbing methods that used in employeeService.saveEmployee() method.
+        //these three lines are the stubbing methods that used in employeeService.saveEmployee() method.
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
         given(employeeRepo.findByEmail(employee.getEmail())).willReturn(Optional.empty());
         given(employeeRepo.save(employee)).willReturn(employee);
 
@@ -65,6 +131,7 @@ public class EmployeeServiceTest {
     @Test
     public void givenExistingEmail_whenSaveEmployee_thenThrowsException() {
         //given
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
         given(employeeRepo.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
         //given(employeeRepo.save(employee)).willReturn(employee);
 
@@ -77,6 +144,81 @@ public class EmployeeServiceTest {
         verify(employeeRepo, never()).save(any(Employee.class));
     }
 
+    @DisplayName("saveEmployee method skips the email query for emails the filter rules out")
+    @Test
+    public void givenNewEmail_whenSaveEmployee_thenSkipFindByEmail() {
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(false);
+        given(employeeRepo.save(employee)).willReturn(employee);
+
+        Employee savedEmployee = employeeService.saveEmployee(employee);
+
+        assertThat(savedEmployee).isSameAs(employee);
+        verify(employeeRepo, never()).findByEmail(any());
+        verify(emailFilter).add(employee.getEmail());
+        verify(outbox).record(EmployeeChange.Type.CREATED, employee);
+    }
+
+    @DisplayName("saveEmployee method maps a unique index violation to DuplicateEmailException")
+    @Test
+    public void givenConcurrentlyTakenEmail_whenSaveEmployee_thenThrowsDuplicateEmailException() {
+        given(employeeRepo.save(employee)).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, "employee." + Employee.EMAIL_INDEX)));
+
+        DuplicateEmailException thrown = Assertions.assertThrows(DuplicateEmailException.class, () ->
+                employeeService.saveEmployee(employee));
+        verify(emailFilter, never()).add(any());
+        verify(outbox, never()).record(any(), any());
+        assertThat(errorCount("duplicate_email")).isEqualTo(1);
+        // expected business error: no stack trace unless employee.error-stack-traces is set
+        assertThat(thrown.getStackTrace()).isEmpty();
+        assertThat(thrown.getCause()).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @DisplayName("saveEmployees method")
+    @Test
+    public void givenEmployeeList_whenSaveEmployees_thenReturnResultPerEmployee() {
+        Employee niu = Employee.builder().firstName("Niusha").lastName("Tahmasebi").email("niushatt@gmail.com").build();
+        Employee sameEmail = Employee.builder().firstName("Niu").lastName("T").email("niushatt@gmail.com").build();
+        Employee noEmail = Employee.builder().firstName("No").lastName("Email").build();
+        // only emails the filter cannot rule out are checked against the database
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
+        given(employeeRepo.findExistingEmails(Set.of(employee.getEmail())))
+                .willReturn(List.of(employee.getEmail()));
+        // the service reuses its batch list, so copy what each saveAll call saw
+        List<Employee> saved = new ArrayList<>();
+        given(employeeRepo.saveAll(anyList())).willAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        List<ResponseDto> results = employeeService.saveEmployees(List.of(employee, niu, sameEmail, noEmail));
+
+        assertThat(results).extracting(ResponseDto::getCode)
+                .containsExactly(HttpStatus.CONFLICT, HttpStatus.CREATED, HttpStatus.CONFLICT, HttpStatus.BAD_REQUEST);
+        assertThat(results.get(1).getResponse()).isSameAs(niu);
+        assertThat(saved).containsExactly(niu);
+        verify(emailFilter).add(niu.getEmail());
+        verify(outbox, times(1)).recordCreated(anyList());
+        verify(employeeRepo, times(1)).flush();
+    }
+
+    @DisplayName("saveEmployees method (invalid and differently cased emails)")
+    @Test
+    public void givenInvalidAndCaseVariantEmails_whenSaveEmployees_thenRejectThem() {
+        Employee invalid = Employee.builder().firstName("No").lastName("Domain").email("niushatt@").build();
+        Employee upperCase = Employee.builder().firstName("Mj").lastName("F").email("MJFARZANEH7@gmail.com").build();
+        given(emailFilter.mightContain(any())).willReturn(true);
+        given(employeeRepo.findExistingEmails(Set.of(invalid.getEmail(), upperCase.getEmail())))
+                .willReturn(List.of(employee.getEmail()));
+
+        List<ResponseDto> results = employeeService.saveEmployees(List.of(invalid, upperCase));
+
+        assertThat(results).extracting(ResponseDto::getCode)
+                .containsExactly(HttpStatus.BAD_REQUEST, HttpStatus.CONFLICT);
+        assertThat(results.get(0).getErrorCode()).isEqualTo("email is not valid: niushatt@");
+        verify(employeeRepo, never()).saveAll(anyList());
+    }
+
     @DisplayName("getAllEmployees method")
     @Test
     public void givenEmployeeList_whenGetAllEmployees_returnReturnEmployeeList() {
@@ -86,10 +228,10 @@ public class EmployeeServiceTest {
                 .lastName("Tahmasebi")
                 .email("niushatt@gmail.com")
                 .build();
-        given(employeeRepo.findAll()).willReturn(List.of(employee, employee1));
+        given(employeeRepo.findAllViews()).willReturn(List.of(EmployeeView.of(employee), EmployeeView.of(employee1)));
 
         //when
-        List<Employee> employeeList = employeeService.getAllEmployees();
+        List<EmployeeView> employeeList = employeeService.getAllEmployees();
 
         //then
         assertThat(employeeList).isNotNull();
@@ -100,31 +242,98 @@ public class EmployeeServiceTest {
     @Test
     public void givenEmptyEmployeeList_whenGetAllEmployees_returnReturnEmptyEmployeeList() {
 
-        given(employeeRepo.findAll()).willReturn(Collections.emptyList());
+        given(employeeRepo.findAllViews()).willReturn(Collections.emptyList());
 
         //when
-        List<Employee> employeeList = employeeService.getAllEmployees();
+        List<EmployeeView> employeeList = employeeService.getAllEmployees();
 
         //then
         assertThat(employeeList).isEmpty();
         assertThat(employeeList.size()).isEqualTo(0);
     }
 
+    @DisplayName("getEmployeesAfter method (more pages left)")
+    @Test
+    public void givenMoreRowsThanLimit_whenGetEmployeesAfter_thenReturnPageWithNextCursor() {
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Niusha")
+                .lastName("Tahmasebi")
+                .email("niushatt@gmail.com")
+                .build();
+        given(employeeRepo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .willReturn(List.of(EmployeeView.of(employee), EmployeeView.of(employee1)));
+
+        EmployeePage page = employeeService.getEmployeesAfter(0L, 1);
+
+        assertThat(page.getContent()).containsExactly(EmployeeView.of(employee));
+        assertThat(PageCursor.decode(page.getNextCursor())).isEqualTo(employee.getId());
+    }
+
+    @DisplayName("getEmployeesAfter method (last page, oversized limit)")
+    @Test
+    public void givenOversizedLimit_whenGetEmployeesAfter_thenCapPageSizeAndReturnNoCursor() {
+        given(employeeRepo.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(501))).willReturn(List.of(EmployeeView.of(employee)));
+
+        EmployeePage page = employeeService.getEmployeesAfter(1L, 1_000_000);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @DisplayName("exportEmployees method")
+    @Test
+    public void givenEmployeeStream_whenExportEmployees_thenConsumeEachEmployee() {
+        given(employeeRepo.streamAll()).willReturn(Stream.of(EmployeeView.of(employee)));
+        List<EmployeeView> exported = new ArrayList<>();
+
+        long count = employeeService.exportEmployees(exported::add);
+
+        assertThat(count).isEqualTo(1);
+        assertThat(exported).containsExactly(EmployeeView.of(employee));
+        verifyNoInteractions(entityManager);
+    }
+
     @DisplayName("getEmployeeId method")
     @Test
     public void givenEmployeeId_whenFindById_returnEmployeeObject() {
-        given(employeeRepo.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepo.findViewById(1L)).willReturn(Optional.of(EmployeeView.of(employee)));
 
-        Optional<Employee> employeeById = employeeService.getEmployeeById(employee.getId());
+        Optional<EmployeeView> employeeById = employeeService.getEmployeeById(employee.getId());
 
         assertThat(employeeById.get()).isNotNull();
-        assertThat(employeeById.get().getEmail()).isEqualTo("mjfarzaneh7@gmail.com");
+        assertThat(employeeById.get().email()).isEqualTo("mjfarzaneh7@gmail.com");
+    }
+
+    @DisplayName("getEmployeeById method serves repeated reads from the cache")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenRepositoryIsQueriedOnce() {
+        given(employeeRepo.findViewById(1L)).willReturn(Optional.of(EmployeeView.of(employee)));
+
+        employeeService.getEmployeeById(1L);
+        Optional<EmployeeView> employeeById = employeeService.getEmployeeById(1L);
+
+        assertThat(employeeById).contains(EmployeeView.of(employee));
+        verify(employeeRepo, times(1)).findViewById(1L);
+    }
+
+    @DisplayName("updateEmployee method invalidates the cached employee")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenNextReadReloads() {
+        Employee updated = Employee.builder().id(1L).firstName("Mohammad Javad").lastName("Farzaneh").email("m.javad2007@gmail.com").build();
+        given(employeeRepo.findViewById(1L)).willReturn(Optional.of(EmployeeView.of(employee)), Optional.of(EmployeeView.of(updated)));
+        given(employeeRepo.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+
+        employeeService.updateEmployee(updated);
+
+        assertThat(employeeService.getEmployeeById(1L)).contains(EmployeeView.of(updated));
     }
 
     @DisplayName("updateEmployee method")
     @Test
     public void givenEmployeeObject_whenUpdateEmployee_returnUpdatedEmployeeObject() {
-        given(employeeRepo.save(employee)).willReturn(employee);
+        given(employeeRepo.findById(1L)).willReturn(Optional.of(employee));
         employee.setEmail("m.javad2007@gmail.com");
         employee.setFirstName("Mohammad Javad");
 
@@ -135,13 +344,293 @@ public class EmployeeServiceTest {
         assertThat(updatedEmployee.getEmail()).isEqualTo("m.javad2007@gmail.com");
     }
 
+    @DisplayName("updateEmployee method starts over when a concurrent write changed the version")
+    @Test
+    public void givenConcurrentWrite_whenUpdateEmployee_thenRetryOnNewerVersion() {
+        Employee updated = Employee.builder().id(1L).firstName("Mohammad Javad").lastName("Farzaneh").email("mjfarzaneh7@gmail.com").build();
+        given(employeeRepo.findById(1L))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L))
+                .willReturn(Optional.of(employee));
+
+        Employee saved = employeeService.updateEmployee(updated);
+
+        assertThat(saved).isSameAs(employee);
+        assertThat(saved.getFirstName()).isEqualTo("Mohammad Javad");
+        verify(employeeRepo, times(2)).findById(1L);
+        verify(outbox).record(EmployeeChange.Type.UPDATED, employee);
+    }
+
+    @DisplayName("updateEmployee method rejects invalid fields on every path before writing anything")
+    @Test
+    public void givenInvalidFields_whenUpdateEmployee_thenThrowsInvalidEmployeeException() {
+        Employee invalid = Employee.builder().id(1L).firstName("Mj").lastName("Farzaneh").email("not-an-email").build();
+
+        Assertions.assertThrows(InvalidEmployeeException.class, () -> employeeService.updateEmployee(invalid));
+        Assertions.assertThrows(InvalidEmployeeException.class, () -> employeeService.updateEmployee(invalid, 3L));
+
+        verifyNoInteractions(employeeRepo, writeBehind, outbox);
+    }
+
+    @DisplayName("updateEmployee method gives up with a conflict when every attempt lost against a concurrent write")
+    @Test
+    public void givenContendedEmployee_whenUpdateEmployeeRetriesExhausted_thenThrowsEmployeeUpdateConflictException() {
+        given(employeeRepo.findById(1L)).willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L));
+
+        Assertions.assertThrows(EmployeeUpdateConflictException.class, () -> employeeService.updateEmployee(employee));
+
+        verify(employeeRepo, times(3)).findById(1L);
+        verify(outbox, never()).record(any(), any());
+        assertThat(errorCount("update_conflict")).isEqualTo(1);
+    }
+
+    @DisplayName("updateEmployee method with write-behind buffers the update instead of saving it")
+    @Test
+    public void givenWriteBehind_whenUpdateEmployee_thenBufferedAndReadBack() {
+        Employee updated = Employee.builder().id(1L).firstName("Mohammad Javad").lastName("Farzaneh").email("mjfarzaneh7@gmail.com").build();
+        EmployeeView buffered = new EmployeeView(1L, "Mohammad Javad", "Farzaneh", "mjfarzaneh7@gmail.com");
+        given(writeBehind.isEnabled()).willReturn(true);
+        given(writeBehind.pending(1L)).willReturn(Optional.empty(), Optional.of(buffered));
+        given(employeeRepo.findViewById(1L)).willReturn(Optional.of(EmployeeView.of(employee)));
+
+        assertThat(employeeService.updateEmployee(updated)).isSameAs(updated);
+
+        // the email did not change, so it is not checked against the database
+        verify(employeeRepo, never()).findByEmail(any());
+        verify(employeeRepo, never()).save(any(Employee.class));
+        verify(writeBehind).submit(buffered);
+        assertThat(employeeService.getEmployeeById(1L)).contains(buffered);
+    }
+
+    @DisplayName("updateEmployees method loads the batch with one query and records every update")
+    @Test
+    public void givenBufferedUpdates_whenUpdateEmployees_thenApplyThemInOneFlush() {
+        Employee niu = Employee.builder().id(2L).firstName("Niusha").lastName("Tahmasebi").email("niushatt@gmail.com").build();
+        EmployeeView renamed = new EmployeeView(1L, "Mohammad Javad", "Farzaneh", "m.javad2007@gmail.com");
+        EmployeeView niuUpdate = new EmployeeView(2L, "Niu", "Tahmasebi", "niushatt@gmail.com");
+        given(employeeRepo.findAllById(Set.of(1L, 2L))).willReturn(List.of(employee, niu));
+
+        int updated = employeeService.updateEmployees(List.of(renamed, niuUpdate));
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(employee.getFirstName()).isEqualTo("Mohammad Javad");
+        assertThat(employee.getEmail()).isEqualTo("m.javad2007@gmail.com");
+        assertThat(niu.getFirstName()).isEqualTo("Niu");
+        verify(outbox).record(EmployeeChange.Type.UPDATED, employee);
+        verify(outbox).record(EmployeeChange.Type.UPDATED, niu);
+        verify(employeeRepo, times(1)).flush();
+        verify(emailFilter).add("m.javad2007@gmail.com");
+    }
+
+    @DisplayName("findEmployees method keeps the index order and drops candidates that no longer match")
+    @Test
+    public void givenIndexCandidates_whenFindEmployees_thenReturnMatchingViewsInOrder() {
+        EmployeeView cached = new EmployeeView(3L, "Niusha", "Tahmasebi", "niushatt@gmail.com");
+        EmployeeView loaded = new EmployeeView(1L, "Ali", "Niu", "ali@yahoo.com");
+        EmployeeView renamed = new EmployeeView(2L, "Sara", "Karimi", "sara@gmail.com");
+        employeeCache.get(3L, id -> Optional.of(cached));
+        given(searchIndex.candidates(eq("niu"), anyInt())).willReturn(new long[]{3L, 2L, 4L, 1L});
+        given(employeeRepo.findViewsByIdIn(List.of(2L, 4L, 1L))).willReturn(List.of(loaded, renamed));
+
+        List<EmployeeView> employees = employeeService.findEmployees(" NIU", 1);
+
+        assertThat(employees).containsExactly(cached);
+        assertThat(employeeService.findEmployees("niu", 2)).containsExactly(cached, loaded);
+    }
+
+    @DisplayName("searchEmployees method")
+    @Test
+    public void givenLastNamePrefix_whenSearchEmployees_thenUsePrefixQuery() {
+        given(employeeRepo.findByLastNameStartingWith(eq("Farz"), any())).willReturn(List.of(EmployeeView.of(employee)));
+
+        List<EmployeeView> employees = employeeService.searchEmployees(null, "Farz", true, 0, 10);
+
+        assertThat(employees).containsExactly(EmployeeView.of(employee));
+        verify(employeeRepo).findByLastNameStartingWith("Farz",
+                PageRequest.of(0, 10, Sort.by("lastName", "firstName", "id")));
+    }
+
+    @DisplayName("searchEmployees method (first name prefix)")
+    @Test
+    public void givenLastNameAndFirstNamePrefix_whenSearchEmployees_thenMatchFirstNameAsPrefix() {
+        given(employeeRepo.findByLastNameAndFirstNameStartingWith(eq("Farzaneh"), eq("M"), any()))
+                .willReturn(List.of(EmployeeView.of(employee)));
+
+        List<EmployeeView> employees = employeeService.searchEmployees("M", "Farzaneh", true, 0, 10_000);
+
+        assertThat(employees).containsExactly(EmployeeView.of(employee));
+        verify(employeeRepo).findByLastNameAndFirstNameStartingWith(eq("Farzaneh"), eq("M"),
+                argThat(pageable -> pageable.getPageSize() == 500));
+    }
+
+    @DisplayName("searchEmployees method (negative scenario)")
+    @Test
+    public void givenBlankLastName_whenSearchEmployees_thenThrowsException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> employeeService.searchEmployees("Mj", " ", true, 0, 10));
+
+        verifyNoInteractions(employeeRepo);
+    }
+
+    @DisplayName("patchEmployee method")
+    @Test
+    public void givenEmployeeIdAndChanges_whenPatchEmployee_thenUpdateOnlySuppliedFields() {
+        Employee changes = Employee.builder().email("m.javad2007@gmail.com").build();
+        given(employeeRepo.updateFields(1L, null, null, "m.javad2007@gmail.com")).willReturn(1);
+
+        boolean patched = employeeService.patchEmployee(1L, changes);
+
+        assertThat(patched).isTrue();
+        verify(emailFilter).add("m.javad2007@gmail.com");
+        verify(employeeRepo, never()).findById(any());
+        // the outbox copies the whole employee itself, the patched row is not read back
+        verify(employeeRepo, never()).findViewById(any());
+        verify(outbox).recordUpdated(1L);
+    }
+
+    @DisplayName("conditional patchEmployee method")
+    @Test
+    public void givenCurrentVersion_whenConditionalPatchEmployee_thenSingleUpdateAndReturnNextVersion() {
+        given(employeeRepo.updateFieldsIfVersion(1L, 3L, "Niusha", null, null)).willReturn(1);
+
+        long version = employeeService.patchEmployee(1L, Employee.builder().firstName("Niusha").build(), 3L);
+
+        assertThat(version).isEqualTo(4L);
+        verify(employeeRepo, never()).findViewById(any());
+        verify(outbox).recordUpdated(1L);
+    }
+
+    @DisplayName("patchEmployee method joins a buffered update, after the same email check as a buffered PUT")
+    @Test
+    public void givenBufferedUpdate_whenPatchEmployee_thenEmailCheckedBeforeMerging() {
+        Employee niu = Employee.builder().id(2L).firstName("Niusha").lastName("Tahmasebi").email("niushatt@gmail.com").build();
+        given(writeBehind.isEnabled()).willReturn(true);
+        given(writeBehind.pending(1L)).willReturn(Optional.of(new EmployeeView(1L, "Mohammad Javad", "Farzaneh", "mjfarzaneh7@gmail.com")));
+        given(emailFilter.mightContain(any())).willReturn(true);
+        given(employeeRepo.findByEmail("niushatt@gmail.com")).willReturn(Optional.of(niu));
+        given(employeeRepo.findByEmail("m.javad2007@gmail.com")).willReturn(Optional.empty());
+        given(writeBehind.mergeIfPending(1L, null, null, "m.javad2007@gmail.com")).willReturn(true);
+
+        Assertions.assertThrows(DuplicateEmailException.class,
+                () -> employeeService.patchEmployee(1L, Employee.builder().email("niushatt@gmail.com").build()));
+        assertThat(employeeService.patchEmployee(1L, Employee.builder().email("m.javad2007@gmail.com").build())).isTrue();
+
+        verify(writeBehind, never()).mergeIfPending(1L, null, null, "niushatt@gmail.com");
+        verify(employeeRepo, never()).updateFields(anyLong(), any(), any(), any());
+    }
+
+    @DisplayName("patchEmployee method rejects supplied fields that cannot be stored")
+    @Test
+    public void givenInvalidChanges_whenPatchEmployee_thenThrowsInvalidEmployeeException() {
+        Employee badEmail = Employee.builder().email("x").build();
+        Employee longName = Employee.builder().firstName("M".repeat(300)).build();
+
+        Assertions.assertThrows(InvalidEmployeeException.class, () -> employeeService.patchEmployee(1L, badEmail));
+        Assertions.assertThrows(InvalidEmployeeException.class, () -> employeeService.patchEmployee(1L, longName));
+        Assertions.assertThrows(InvalidEmployeeException.class, () -> employeeService.patchEmployee(1L, badEmail, 3L));
+
+        verifyNoInteractions(employeeRepo, writeBehind);
+    }
+
+    @DisplayName("patchEmployee method (negative scenario)")
+    @Test
+    public void givenUnknownEmployeeId_whenPatchEmployee_thenReturnFalse() {
+        given(employeeRepo.updateFields(2L, "Mj", null, null)).willReturn(0);
+
+        boolean patched = employeeService.patchEmployee(2L, Employee.builder().firstName("Mj").build());
+
+        assertThat(patched).isFalse();
+        assertThat(errorCount("not_found")).isEqualTo(1);
+    }
+
+    @DisplayName("conditional updateEmployee method")
+    @Test
+    public void givenCurrentVersion_whenConditionalUpdateEmployee_thenSingleUpdateAndReturnNextVersion() {
+        given(employeeRepo.updateFieldsIfVersion(1L, 3L, "Mj", "Farzaneh", "mjfarzaneh7@gmail.com")).willReturn(1);
+
+        long version = employeeService.updateEmployee(employee, 3L);
+
+        assertThat(version).isEqualTo(4L);
+        // nothing is read, neither before the update nor for the outbox
+        verify(employeeRepo, never()).findById(any());
+        verify(employeeRepo, never()).findViewById(any());
+        verify(outbox).recordUpdated(new EmployeeView(1L, "Mj", "Farzaneh", "mjfarzaneh7@gmail.com", 4L));
+        verify(emailFilter).add("mjfarzaneh7@gmail.com");
+    }
+
+    @DisplayName("conditional updateEmployee method (stale version)")
+    @Test
+    public void givenStaleVersion_whenConditionalUpdateEmployee_thenThrowsEmployeeVersionMismatchException() {
+        given(employeeRepo.updateFieldsIfVersion(1L, 2L, "Mj", "Farzaneh", "mjfarzaneh7@gmail.com")).willReturn(0);
+        given(employeeRepo.existsById(1L)).willReturn(true);
+
+        Assertions.assertSame(EmployeeVersionMismatchException.INSTANCE,
+                Assertions.assertThrows(EmployeeVersionMismatchException.class, () -> employeeService.updateEmployee(employee, 2L)));
+
+        verify(outbox, never()).recordUpdated(any());
+        assertThat(errorCount("version_mismatch")).isEqualTo(1);
+    }
+
+    @DisplayName("conditional patchEmployee method (negative scenarios)")
+    @Test
+    public void givenUnknownEmployeeOrBufferedUpdate_whenConditionalPatchEmployee_thenThrows() {
+        Employee changes = Employee.builder().firstName("Mj").build();
+        given(employeeRepo.updateFieldsIfVersion(2L, 0L, "Mj", null, null)).willReturn(0);
+        given(employeeRepo.existsById(2L)).willReturn(false);
+        given(writeBehind.isEnabled()).willReturn(true);
+        given(writeBehind.pending(2L)).willReturn(Optional.empty());
+        given(writeBehind.pending(1L)).willReturn(Optional.of(new EmployeeView(1L, "Niusha", "Farzaneh", "mjfarzaneh7@gmail.com")));
+
+        Assertions.assertThrows(EmployeeNotFoundException.class, () -> employeeService.patchEmployee(2L, changes, 0L));
+        // the buffered update would overwrite the patch, and no version the client has can be current
+        Assertions.assertThrows(EmployeeVersionMismatchException.class, () -> employeeService.patchEmployee(1L, changes, 0L));
+
+        verify(employeeRepo, never()).updateFieldsIfVersion(eq(1L), anyLong(), any(), any(), any());
+        assertThat(errorCount("not_found")).isEqualTo(1);
+    }
+
     @DisplayName("deleteEmployee method")
     @Test
-    public void givenEmployeeId_whenDeleteEmployee_returnNothing() {
-        willDoNothing().given(employeeRepo).deleteById(employee.getId());
+    public void givenEmployeeId_whenDeleteEmployee_returnTrue() {
+        given(employeeRepo.removeById(employee.getId())).willReturn(1);
+
+        boolean deleted = employeeService.deleteEmployee(employee.getId());
+
+        assertThat(deleted).isTrue();
+        verify(employeeRepo, times(1)).removeById(employee.getId());
+        verify(employeeRepo, never()).findById(any());
+        verify(outbox).recordDeleted(List.of(employee.getId()));
+    }
+
+    @DisplayName("deleteEmployee method (negative scenario)")
+    @Test
+    public void givenUnknownEmployeeId_whenDeleteEmployee_returnFalse() {
+        given(employeeRepo.removeById(2L)).willReturn(0);
+
+        boolean deleted = employeeService.deleteEmployee(2L);
+
+        assertThat(deleted).isFalse();
+        verify(emailFilter, never()).recordRemovals(anyLong());
+        verify(outbox, never()).recordDeleted(any());
+    }
+
+    @DisplayName("deleteEmployees method")
+    @Test
+    public void givenEmployeeIds_whenDeleteEmployees_thenDeleteInChunks() {
+        properties.setBatchSize(2);
+        given(employeeRepo.findExistingIdsForUpdate(List.of(1L, 2L))).willReturn(List.of(1L));
+        given(employeeRepo.findExistingIdsForUpdate(List.of(3L))).willReturn(List.of());
+        given(employeeRepo.removeAllByIdIn(List.of(1L))).willReturn(1);
 
-        employeeService.deleteEmployee(employee.getId());
+        int deleted = employeeService.deleteEmployees(List.of(1L, 2L, 2L, 3L));
+
+        assertThat(deleted).isEqualTo(1);
+        verify(emailFilter).recordRemovals(1);
+        // ids that did not exist get no DELETED change
+        verify(outbox).recordDeleted(List.of(1L));
+        verify(outbox, times(1)).recordDeleted(any());
+        verify(employeeRepo, never()).removeAllByIdIn(List.of(3L));
+    }
 
-        verify(employeeRepo, times(1)).deleteById(employee.getId());
+    private double errorCount(String cause) {
+        return meterRegistry.get(EmployeeErrorMetrics.NAME).tag("cause", cause).counter().count();
     }
 }
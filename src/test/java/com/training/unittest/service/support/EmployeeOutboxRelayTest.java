@@ -0,0 +1,113 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.model.EmployeeChange;
+import com.training.unittest.repository.EmployeeChangeRepo;
+import com.training.unittest.service.EmployeeChangeSubscriber;
+import com.training.unittest.service.dto.EmployeeChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeOutboxRelayTest {
+
+    @Mock
+    private EmployeeChangeRepo changeRepo;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final List<List<EmployeeChangeEvent>> received = new ArrayList<>();
+    private boolean failing;
+    private EmployeeChangeBus bus;
+    private EmployeeOutboxRelay relay;
+
+    @BeforeEach
+    public void setup() {
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getOutbox().setBatchSize(2);
+        properties.getOutbox().setRetryDelay(Duration.ZERO);
+        EmployeeChangeSubscriber subscriber = events -> {
+            received.add(events);
+            if (failing) {
+                throw new IllegalStateException("payroll is down");
+            }
+        };
+        // neither is started, the test relays and dispatches on its own thread
+        bus = new EmployeeChangeBus(new StaticListableBeanFactory(Map.of("subscriber", subscriber))
+                .getBeanProvider(EmployeeChangeSubscriber.class), properties, new SimpleMeterRegistry());
+        relay = new EmployeeOutboxRelay(changeRepo, transactionManager, bus, properties);
+    }
+
+    private static EmployeeChange change(long id, EmployeeChange.Type type) {
+        return new EmployeeChange(id, type, 100 + id, "Mj", "Farzaneh", "mjfarzaneh7@gmail.com", id, Instant.now());
+    }
+
+    @DisplayName("batches are delivered in outbox order and deleted once the subscribers handled them")
+    @Test
+    public void givenOutboxRows_whenRelayed_thenDeliveredInOrderAndDeleted() {
+        given(changeRepo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .willReturn(List.of(change(3, EmployeeChange.Type.CREATED), change(7, EmployeeChange.Type.UPDATED)));
+        given(changeRepo.findByIdGreaterThanOrderByIdAsc(7L, Limit.of(2)))
+                .willReturn(List.of(change(9, EmployeeChange.Type.DELETED)));
+
+        // a full batch: more rows are probably waiting, read on without waiting for the subscribers
+        assertThat(relay.relayOnce()).isTrue();
+        assertThat(relay.relayOnce()).isFalse();
+        assertThat(bus.isIdle()).isFalse();
+        while (bus.dispatchOnce()) {
+        }
+
+        assertThat(bus.isIdle()).isTrue();
+        assertThat(received).hasSize(2);
+        assertThat(received.get(0)).extracting(EmployeeChangeEvent::id).containsExactly(3L, 7L);
+        assertThat(received.get(0)).extracting(EmployeeChangeEvent::employeeId).containsExactly(103L, 107L);
+        assertThat(received.get(1)).extracting(EmployeeChangeEvent::type).containsExactly(EmployeeChange.Type.DELETED);
+        verify(changeRepo).removeAllByIdIn(List.of(3L, 7L));
+        verify(changeRepo).removeAllByIdIn(List.of(9L));
+    }
+
+    @DisplayName("a batch a subscriber failed on is retried before any later batch is delivered")
+    @Test
+    public void givenFailingSubscriber_whenDispatched_thenSameBatchRetriedBeforeLaterOnes() {
+        given(changeRepo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .willReturn(List.of(change(5, EmployeeChange.Type.CREATED), change(6, EmployeeChange.Type.UPDATED)));
+        given(changeRepo.findByIdGreaterThanOrderByIdAsc(6L, Limit.of(2)))
+                .willReturn(List.of(change(8, EmployeeChange.Type.UPDATED)));
+        relay.relayOnce();
+        relay.relayOnce();
+        failing = true;
+
+        assertThat(bus.dispatchOnce()).isTrue();
+        assertThat(bus.dispatchOnce()).isTrue();
+        verify(changeRepo, never()).removeAllByIdIn(any());
+        assertThat(bus.isIdle()).isFalse();
+
+        failing = false;
+        while (bus.dispatchOnce()) {
+        }
+
+        assertThat(received).extracting(events -> events.get(0).id()).containsExactly(5L, 5L, 5L, 8L);
+        assertThat(received.get(2)).extracting(EmployeeChangeEvent::version).containsExactly(5L, 6L);
+        verify(changeRepo).removeAllByIdIn(List.of(5L, 6L));
+        verify(changeRepo).removeAllByIdIn(List.of(8L));
+    }
+}
@@ -0,0 +1,105 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.repository.EmployeeRepo;
+import com.training.unittest.service.dto.EmployeeView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSearchIndexTest {
+
+    @Mock
+    private EmployeeRepo employeeRepo;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        // builds on the calling thread
+        searchIndex = new EmployeeSearchIndex(employeeRepo, transactionManager, Runnable::run, new EmployeeProperties());
+    }
+
+    private void givenIndexBuiltFrom(EmployeeView... employees) {
+        given(employeeRepo.streamAll()).willReturn(Stream.of(employees));
+        searchIndex.rebuild();
+    }
+
+    @DisplayName("candidates rank name prefix, name infix, email prefix and email infix matches")
+    @Test
+    public void givenBuiltIndex_whenCandidates_thenReturnRankedIds() {
+        givenIndexBuiltFrom(
+                new EmployeeView(1L, "Ali", "Niusha", "ali@yahoo.com"),
+                new EmployeeView(2L, "Mj", "Farzaneh", "mjfarzaneh7@gmail.com"),
+                new EmployeeView(3L, "Sara", "Niu", "sara@gmail.com"),
+                new EmployeeView(4L, "Reza", "Tahmasebi", "niu.reza@gmail.com"),
+                new EmployeeView(5L, "Hamid", "Ahmadi", "hamid.niusha@gmail.com"),
+                new EmployeeView(6L, "Kaveh", "Tanniu", "kaveh@gmail.com"));
+
+        assertThat(searchIndex.isReady()).isTrue();
+        assertThat(searchIndex.candidates("niu", 10)).containsExactly(1L, 3L, 6L, 4L, 5L);
+        assertThat(searchIndex.candidates("niu", 3)).containsExactly(1L, 3L, 6L);
+        assertThat(searchIndex.candidates("gmail", 10)).containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(searchIndex.candidates("farz", 10)).containsExactly(2L);
+        assertThat(searchIndex.candidates("xyz", 10)).isEmpty();
+    }
+
+    @DisplayName("employees added after the build are found, old values stay until the row check drops them")
+    @Test
+    public void givenBuiltIndex_whenAddNewAndChangedEmployees_thenCandidatesIncludeThem() {
+        givenIndexBuiltFrom(
+                new EmployeeView(5L, "Majid", "Farzaneh", "mjfarzaneh7@gmail.com"),
+                new EmployeeView(9L, "Sara", "Karimi", "sara@gmail.com"));
+
+        searchIndex.add(12L, "Niusha", "Tahmasebi", "niushatt@gmail.com");
+        searchIndex.add(5L, "Niusha", null, null);
+
+        assertThat(searchIndex.candidates("niush", 10)).containsExactly(5L, 12L);
+        assertThat(searchIndex.candidates("farz", 10)).containsExactly(5L);
+        // the old first name is still indexed, the check on the current row rejects it
+        assertThat(searchIndex.candidates("majid", 10)).containsExactly(5L);
+        EmployeeView changed = new EmployeeView(5L, "Niusha", "Farzaneh", "mjfarzaneh7@gmail.com");
+        assertThat(EmployeeSearchIndex.matches(changed, "niush")).isTrue();
+        assertThat(EmployeeSearchIndex.matches(changed, "majid")).isFalse();
+    }
+
+    @DisplayName("many employees: candidates equal a scan for the fragment")
+    @Test
+    public void givenManyEmployees_whenCandidates_thenMatchAScan() {
+        List<EmployeeView> employees = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            employees.add(new EmployeeView(id, "First" + id % 97, "Last" + id % 89, "user" + id + "@mail" + id % 7 + ".com"));
+        }
+        givenIndexBuiltFrom(employees.toArray(EmployeeView[]::new));
+
+        long[] candidates = searchIndex.candidates("st4", 5_000);
+
+        assertThat(candidates).containsExactlyInAnyOrder(employees.stream()
+                .filter(employee -> EmployeeSearchIndex.matches(employee, "st4"))
+                .mapToLong(EmployeeView::id)
+                .toArray());
+    }
+
+    @DisplayName("queries are validated and need a built index")
+    @Test
+    public void givenInvalidQueryOrNoIndex_whenSearching_thenThrowsException() {
+        assertThat(EmployeeSearchIndex.normalizeQuery("  FaRz ")).isEqualTo("farz");
+        assertThatThrownBy(() -> EmployeeSearchIndex.normalizeQuery("ab")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EmployeeSearchIndex.normalizeQuery(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchIndex.candidates("farz", 10)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.config.EmployeeProperties;
+import com.training.unittest.exception.DuplicateEmailException;
+import com.training.unittest.exception.EmployeeBusyException;
+import com.training.unittest.service.EmployeeService;
+import com.training.unittest.service.dto.EmployeeView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeWriteBehindTest {
+
+    @TempDir
+    private Path journal;
+    @Mock
+    private EmployeeService employeeService;
+    private final EmployeeProperties properties = new EmployeeProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmployeeWriteBehind writeBehind;
+
+    @BeforeEach
+    public void setup() {
+        properties.getWriteBehind().setEnabled(true);
+        properties.getWriteBehind().setJournal(journal);
+        // the flusher thread is not started, the tests flush on their own thread
+        writeBehind = newWriteBehind();
+        writeBehind.open();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        writeBehind.close();
+    }
+
+    private EmployeeWriteBehind newWriteBehind() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("employeeService", employeeService);
+        return new EmployeeWriteBehind(beanFactory.getBeanProvider(EmployeeService.class), properties, meterRegistry);
+    }
+
+    private static EmployeeView employee(long id, String firstName) {
+        return new EmployeeView(id, firstName, "Farzaneh", "mj" + id + "@gmail.com");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EmployeeView> flushed() {
+        ArgumentCaptor<Collection<EmployeeView>> updates = ArgumentCaptor.forClass(Collection.class);
+        verify(employeeService).updateEmployees(updates.capture());
+        return List.copyOf(updates.getValue());
+    }
+
+    @DisplayName("only the latest update per employee is written, and it is readable until then")
+    @Test
+    public void givenRepeatedUpdates_whenFlush_thenWriteLatestPerEmployeeOnce() {
+        writeBehind.submit(employee(1, "Mj"));
+        writeBehind.submit(employee(2, "Niusha"));
+        writeBehind.submit(employee(1, "Mohammad Javad"));
+
+        assertThat(writeBehind.pending(1)).contains(employee(1, "Mohammad Javad"));
+        writeBehind.flush();
+
+        assertThat(flushed()).containsExactlyInAnyOrder(employee(1, "Mohammad Javad"), employee(2, "Niusha"));
+        assertThat(writeBehind.pending(1)).isEmpty();
+        writeBehind.flush();
+        verify(employeeService, times(1)).updateEmployees(anyList());
+    }
+
+    @DisplayName("buffered updates survive a restart through the journal")
+    @Test
+    public void givenBufferedUpdates_whenReopened_thenReplayedFromJournal() {
+        writeBehind.submit(employee(1, "Mj"));
+        writeBehind.submit(employee(1, "Mohammad Javad"));
+        writeBehind.mergeIfPending(1, null, "Farzane", null);
+        writeBehind.close();
+
+        writeBehind = newWriteBehind();
+        writeBehind.open();
+
+        assertThat(writeBehind.pending(1)).contains(new EmployeeView(1, "Mohammad Javad", "Farzane", "mj1@gmail.com"));
+        writeBehind.flush();
+        assertThat(flushed()).containsExactly(new EmployeeView(1, "Mohammad Javad", "Farzane", "mj1@gmail.com"));
+    }
+
+    @DisplayName("a full buffer rejects updates of further employees but still takes updates of buffered ones")
+    @Test
+    public void givenFullBuffer_whenSubmit_thenThrowsEmployeeBusyException() {
+        properties.getWriteBehind().setMaxPending(1);
+        properties.getWriteBehind().setAcquireTimeout(Duration.ofMillis(10));
+        writeBehind.submit(employee(1, "Mj"));
+        writeBehind.submit(employee(1, "Niusha"));
+
+        assertThatThrownBy(() -> writeBehind.submit(employee(2, "Sara"))).isSameAs(EmployeeBusyException.INSTANCE);
+        assertThat(writeBehind.pending(2)).isEmpty();
+    }
+
+    @DisplayName("a rejected update is dropped, a failed write is kept for the next flush, a discarded one is not")
+    @Test
+    public void givenFailingWrites_whenFlush_thenDropRejectedAndKeepFailed() {
+        given(employeeService.updateEmployees(List.of(employee(1, "Mj"), employee(2, "Niusha"))))
+                .willThrow(new DuplicateEmailException("mj2@gmail.com", null, false));
+        given(employeeService.updateEmployees(List.of(employee(1, "Mj")))).willReturn(1);
+        given(employeeService.updateEmployees(List.of(employee(2, "Niusha"))))
+                .willThrow(new DuplicateEmailException("mj2@gmail.com", null, false));
+        given(employeeService.updateEmployees(List.of(employee(3, "Sara"))))
+                .willThrow(new DataAccessResourceFailureException("database down"));
+        properties.setBatchSize(2);
+        writeBehind.close();
+        writeBehind = newWriteBehind();
+        writeBehind.open();
+        writeBehind.submit(employee(1, "Mj"));
+        writeBehind.submit(employee(2, "Niusha"));
+        writeBehind.submit(employee(3, "Sara"));
+        writeBehind.submit(employee(4, "Reza"));
+        writeBehind.discard(4);
+
+        writeBehind.flush();
+
+        assertThat(writeBehind.pending(1)).isEmpty();
+        assertThat(writeBehind.pending(2)).isEmpty();
+        assertThat(writeBehind.pending(3)).contains(employee(3, "Sara"));
+        assertThat(writeBehind.pending(4)).isEmpty();
+        assertThat(meterRegistry.get("employee.write-behind.dropped").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.training.unittest.service.support;
+
+import com.training.unittest.repository.EmployeeTableVersionRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class TableVersionCounterTest {
+
+    @Mock
+    private EmployeeTableVersionRepo tableVersionRepo;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private TableVersionCounter counter;
+
+    @BeforeEach
+    public void setup() {
+        counter = new TableVersionCounter(tableVersionRepo, transactionManager);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.unbindResourceIfPossible(counter);
+    }
+
+    @DisplayName("a transaction increments one stripe once, right before it commits")
+    @Test
+    public void givenSeveralWritesInTransaction_whenCommitted_thenIncrementOnce() {
+        given(tableVersionRepo.increment(anyInt())).willReturn(1);
+
+        counter.increment();
+        counter.increment();
+        verify(tableVersionRepo, never()).increment(anyInt());
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(tableVersionRepo, times(1)).increment(anyInt());
+        assertThat(TransactionSynchronizationManager.hasResource(counter)).isFalse();
+    }
+}